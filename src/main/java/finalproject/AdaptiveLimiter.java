@@ -0,0 +1,146 @@
+package finalproject;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ROLE: Service.
+ * AIMD concurrency limiter for GitHub requests: grows by one slot per round of fast successes, halves on throttling.
+ * GitHubClient acquires a slot per request and reports latency and X-RateLimit-* headers; a pause blocks every caller.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class AdaptiveLimiter {
+
+    // A response this many times slower than the best recent one counts as congestion
+    private static final double CONGESTION_FACTOR = 2.0;
+    private static final long MAX_PAUSE_MILLIS = 60_000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    // A lock rather than a monitor: virtual threads waiting in acquire() unmount instead of pinning their carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private long pausedUntilMillis;
+    private double bestLatencyMillis = -1;
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limiter bounds " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    // Blocks until a slot is free and no rate-limit pause is active
+    public void acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                long pause = pausedUntilMillis - System.currentTimeMillis();
+                if (pause > 0) {
+                    changed.await(pause, TimeUnit.MILLISECONDS);
+                } else if (inFlight < (int) limit) {
+                    inFlight++;
+                    return;
+                } else {
+                    changed.await();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Additive increase on fast responses, gentle decrease when latency climbs
+    public void onSuccess(long latencyMillis) {
+        lock.lock();
+        try {
+            release();
+            if (bestLatencyMillis < 0 || latencyMillis < bestLatencyMillis) {
+                bestLatencyMillis = latencyMillis;
+            } else {
+                bestLatencyMillis *= 1.01; // let the baseline drift so one lucky response doesn't pin it forever
+            }
+            if (latencyMillis > bestLatencyMillis * CONGESTION_FACTOR && latencyMillis > 50) {
+                limit = Math.max(minLimit, limit * 0.9);
+            } else {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Multiplicative decrease plus a shared pause when GitHub throttles us
+    public void onThrottle(long pauseMillis) {
+        lock.lock();
+        try {
+            release();
+            limit = Math.max(minLimit, limit / 2);
+            pauseFor(pauseMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Network error or server failure: free the slot without changing the limit
+    public void onFailure() {
+        lock.lock();
+        try {
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Applies X-RateLimit-Remaining / X-RateLimit-Reset so we slow down before the quota runs out
+    public void onRateLimit(long remaining, long resetEpochSeconds) {
+        lock.lock();
+        try {
+            if (remaining <= 0 && resetEpochSeconds > 0) {
+                pauseFor(resetEpochSeconds * 1000 - System.currentTimeMillis());
+            } else if (remaining < limit) {
+                limit = Math.max(minLimit, remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Callers hold the lock
+    private void pauseFor(long pauseMillis) {
+        long until = System.currentTimeMillis() + Math.min(MAX_PAUSE_MILLIS, Math.max(0, pauseMillis));
+        pausedUntilMillis = Math.max(pausedUntilMillis, until);
+        changed.signalAll();
+    }
+
+    private void release() {
+        inFlight = Math.max(0, inFlight - 1);
+        changed.signalAll();
+    }
+}
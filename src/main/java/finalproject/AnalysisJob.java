@@ -0,0 +1,130 @@
+package finalproject;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * ROLE: Data.
+ * One scheduled analysis run: its state, per-stage timings, and a cooperative cancellation flag.
+ * Created by AnalysisScheduler; GitFetch checks it between files and stages, and BottomBar displays it.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class AnalysisJob {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED,
+        CANCELLED
+    }
+
+    private final int id;
+    private final String label;
+    private final long submittedAt = System.nanoTime();
+    private final Map<String, Long> stageMillis = new LinkedHashMap<>();
+    private final Runnable onChange;
+
+    private volatile State state = State.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile String currentStage;
+    private long stageStartedAt;
+    private long startedAt;
+    private long finishedAt;
+
+    AnalysisJob(int id, String label, Runnable onChange) {
+        this.id = id;
+        this.label = label;
+        this.onChange = onChange;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getCurrentStage() {
+        return currentStage;
+    }
+
+    public boolean isCancelled() {
+        return cancelRequested;
+    }
+
+    // Cooperative cancellation point; throws once a newer job has superseded this one
+    public void checkCancelled() {
+        if (cancelRequested) {
+            throw new CancellationException("Analysis job " + id + " was superseded.");
+        }
+    }
+
+    // Closes the timing of the previous stage and starts a new one
+    public void beginStage(String stage) {
+        checkCancelled();
+        synchronized (this) {
+            closeStage();
+            currentStage = stage;
+            stageStartedAt = System.nanoTime();
+        }
+        onChange.run();
+    }
+
+    public synchronized Map<String, Long> getStageMillis() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(stageMillis));
+    }
+
+    // Queue wait before the run started, or total run time once finished
+    public synchronized long getElapsedMillis() {
+        if (startedAt == 0) {
+            return (System.nanoTime() - submittedAt) / 1_000_000;
+        }
+        long end = finishedAt == 0 ? System.nanoTime() : finishedAt;
+        return (end - startedAt) / 1_000_000;
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+        if (state == State.QUEUED) {
+            finish(State.CANCELLED);
+        }
+    }
+
+    void markRunning() {
+        synchronized (this) {
+            startedAt = System.nanoTime();
+            state = State.RUNNING;
+        }
+        onChange.run();
+    }
+
+    void finish(State finalState) {
+        synchronized (this) {
+            if (state == State.SUCCEEDED || state == State.FAILED || state == State.CANCELLED) {
+                return;
+            }
+            closeStage();
+            currentStage = null;
+            finishedAt = System.nanoTime();
+            state = finalState;
+        }
+        onChange.run();
+    }
+
+    private void closeStage() {
+        if (currentStage != null) {
+            stageMillis.put(currentStage, (System.nanoTime() - stageStartedAt) / 1_000_000);
+        }
+    }
+}
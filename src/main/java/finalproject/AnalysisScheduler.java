@@ -0,0 +1,115 @@
+package finalproject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ROLE: Service.
+ * Application-wide queue for analysis runs with supersede semantics: a new submission cancels queued and in-flight jobs.
+ * Replaces one raw thread per Analyze click; job state and timings are broadcast to listeners such as BottomBar.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class AnalysisScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AnalysisScheduler.class);
+    private static final AnalysisScheduler INSTANCE = new AnalysisScheduler();
+
+    /**
+     * Work run by the scheduler; it should call job.checkCancelled() between files and stages.
+     */
+    @FunctionalInterface
+    public interface Task {
+        void execute(AnalysisJob job) throws Exception;
+    }
+
+    public static AnalysisScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread worker = new Thread(runnable, "GitFetchWorker");
+        worker.setDaemon(true);
+        return worker;
+    });
+    private final List<Runnable> jobListeners = new CopyOnWriteArrayList<>();
+    private final List<AnalysisJob> pending = new ArrayList<>();
+    private final List<Future<?>> futures = new ArrayList<>();
+    private int nextId = 1;
+    private volatile AnalysisJob latestJob;
+
+    private AnalysisScheduler() {
+    }
+
+    // Supersedes everything queued or running, then queues the new job
+    public synchronized AnalysisJob submit(String label, Task task) {
+        cancelAll();
+        AnalysisJob job = new AnalysisJob(nextId++, label, this::notifyJobListeners);
+        latestJob = job;
+        pending.add(job);
+        futures.add(executor.submit(() -> runJob(job, task)));
+        LOG.info("Queued analysis job {} for {}", job.getId(), label);
+        notifyJobListeners();
+        return job;
+    }
+
+    public synchronized void cancelAll() {
+        for (AnalysisJob job : pending) {
+            job.requestCancel();
+            LOG.info("Cancelling analysis job {}", job.getId());
+        }
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+        pending.clear();
+        futures.clear();
+    }
+
+    // Most recently submitted job, or null before the first analysis
+    public AnalysisJob getLatestJob() {
+        return latestJob;
+    }
+
+    public void addJobListener(Runnable listener) {
+        jobListeners.add(listener);
+    }
+
+    private void runJob(AnalysisJob job, Task task) {
+        if (job.isCancelled()) {
+            return;
+        }
+        job.markRunning();
+        try {
+            task.execute(job);
+            job.checkCancelled();
+            job.finish(AnalysisJob.State.SUCCEEDED);
+        } catch (CancellationException | InterruptedException ex) {
+            job.finish(AnalysisJob.State.CANCELLED);
+        } catch (Exception ex) {
+            job.finish(job.isCancelled() ? AnalysisJob.State.CANCELLED : AnalysisJob.State.FAILED);
+        } finally {
+            Thread.interrupted(); // don't leak a cancel interrupt into the next job
+            synchronized (this) {
+                pending.remove(job);
+            }
+            LOG.info("Analysis job {} finished as {} in {} ms {}", job.getId(), job.getState(),
+                    job.getElapsedMillis(), job.getStageMillis());
+        }
+    }
+
+    private void notifyJobListeners() {
+        for (Runnable listener : jobListeners) {
+            listener.run();
+        }
+    }
+}
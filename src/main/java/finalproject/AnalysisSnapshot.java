@@ -0,0 +1,134 @@
+package finalproject;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ROLE: Data.
+ * Complete result of one analysis run, kept as the baseline for incremental reloads.
+ * Built by GitFetch after publishing; Controller hands it back so a reload only redoes what changed.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class AnalysisSnapshot {
+
+    private final String location;
+    private final Set<String> repoClasses;
+    private final Map<String, String> versions;
+    private final List<ParsedSource> sources;
+    private final List<GridFileData> gridFiles;
+    private final DependencyGraph graph;
+    private DiaEngine diaEngine;
+    private final List<DiaMetricsData> diaMetrics;
+    private final List<PackageMetricsData> packageMetrics;
+    private final List<CycleGroupData> cycleGroups;
+    private final ReachabilityIndex reachability;
+    private final UmlDiagramData umlDiagram;
+
+    public AnalysisSnapshot(String location, Set<String> repoClasses, Map<String, String> versions, List<ParsedSource> sources,
+                            List<GridFileData> gridFiles, DependencyGraph graph, DiaEngine diaEngine,
+                            List<DiaMetricsData> diaMetrics, List<PackageMetricsData> packageMetrics,
+                            List<CycleGroupData> cycleGroups, ReachabilityIndex reachability, UmlDiagramData umlDiagram) {
+        this.location = location;
+        this.repoClasses = Collections.unmodifiableSet(repoClasses);
+        this.versions = Collections.unmodifiableMap(versions);
+        this.sources = Collections.unmodifiableList(sources);
+        this.gridFiles = Collections.unmodifiableList(gridFiles);
+        this.graph = graph;
+        this.diaEngine = diaEngine;
+        this.diaMetrics = Collections.unmodifiableList(diaMetrics);
+        this.packageMetrics = Collections.unmodifiableList(packageMetrics);
+        this.cycleGroups = Collections.unmodifiableList(cycleGroups);
+        this.reachability = reachability;
+        this.umlDiagram = umlDiagram;
+    }
+
+    // URL or path of the SourceProvider that produced this run
+    public String getLocation() {
+        return location;
+    }
+
+    // Class names from the listing, including files whose download failed
+    public Set<String> getRepoClasses() {
+        return repoClasses;
+    }
+
+    // Path -> version stamp (blob SHA for GitHub) used to diff a reload
+    public Map<String, String> getVersions() {
+        return versions;
+    }
+
+    public List<ParsedSource> getSources() {
+        return sources;
+    }
+
+    public List<GridFileData> getGridFiles() {
+        return gridFiles;
+    }
+
+    // Nodes follow getSources() order
+    public DependencyGraph getGraph() {
+        return graph;
+    }
+
+    // The engine is updated in place by the next reload, so it can be taken only once; null afterwards
+    public DiaEngine takeDiaEngine() {
+        DiaEngine engine = diaEngine;
+        diaEngine = null;
+        return engine;
+    }
+
+    public List<DiaMetricsData> getDiaMetrics() {
+        return diaMetrics;
+    }
+
+    public List<PackageMetricsData> getPackageMetrics() {
+        return packageMetrics;
+    }
+
+    public List<CycleGroupData> getCycleGroups() {
+        return cycleGroups;
+    }
+
+    public ReachabilityIndex getReachability() {
+        return reachability;
+    }
+
+    // Null for headless runs, which write the diagram from getGraph() instead
+    public UmlDiagramData getUmlDiagram() {
+        return umlDiagram;
+    }
+
+    public boolean canDiff() {
+        return !versions.isEmpty();
+    }
+
+    public Map<String, ParsedSource> sourcesByPath() {
+        Map<String, ParsedSource> byPath = new HashMap<>();
+        for (ParsedSource source : sources) {
+            byPath.put(source.path, source);
+        }
+        return byPath;
+    }
+
+    public Map<String, GridFileData> gridFilesByPath() {
+        Map<String, GridFileData> byPath = new HashMap<>();
+        for (GridFileData grid : gridFiles) {
+            byPath.put(grid.getName(), grid);
+        }
+        return byPath;
+    }
+
+    public Map<String, DiaMetricsData> diaMetricsByPath() {
+        Map<String, DiaMetricsData> byPath = new HashMap<>();
+        for (DiaMetricsData metric : diaMetrics) {
+            byPath.put(metric.getName(), metric);
+        }
+        return byPath;
+    }
+}
@@ -21,17 +21,19 @@ public class AnalysisTabs extends JPanel {
     private static final Logger LOG = LoggerFactory.getLogger(AnalysisTabs.class);
 
     private final FileGridTab gridTab;
+    private final DiagramTab diagramTab;
     private final BottomBar bottomBar;
 
     public AnalysisTabs(BottomBar bottomBar) {
         super(new BorderLayout());
         this.bottomBar = bottomBar;
         gridTab = new FileGridTab();
+        diagramTab = new DiagramTab();
 
         JTabbedPane tabbedPane = new JTabbedPane();
         tabbedPane.addTab("Grid", gridTab);
         tabbedPane.addTab("Metrics", new MetricsTab());
-        tabbedPane.addTab("Diagram", new DiagramTab());
+        tabbedPane.addTab("Diagram", diagramTab);
         tabbedPane.addChangeListener(e -> handleTabChange(tabbedPane.getSelectedIndex()));
         bottomBar.setView(BottomBar.ViewMode.GRID);
 
@@ -42,6 +44,10 @@ public class AnalysisTabs extends JPanel {
         return gridTab;
     }
 
+    public DiagramTab getDiagramTab() {
+        return diagramTab;
+    }
+
     private void handleTabChange(int index) {
         if (index == 0) {
             bottomBar.setView(BottomBar.ViewMode.GRID);
@@ -0,0 +1,160 @@
+package finalproject;
+
+import java.io.BufferedInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ROLE: Service.
+ * SourceProvider for a .zip, .tar, .tar.gz, or .tgz snapshot; streams the archive and decodes only the .java entries.
+ * readAll makes a single pass over the archive and hands each file to analysis as it is decompressed.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class ArchiveSourceProvider implements SourceProvider {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ArchiveSourceProvider.class);
+
+    private final Path archive;
+    private final boolean zip;
+
+    public ArchiveSourceProvider(Path archive) {
+        this.archive = archive.toAbsolutePath().normalize();
+        this.zip = archive.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".zip");
+    }
+
+    public static boolean isArchive(Path path) {
+        String name = path.getFileName() == null ? "" : path.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".zip") || name.endsWith(".tar") || name.endsWith(".tar.gz") || name.endsWith(".tgz");
+    }
+
+    @Override
+    public String getLocation() {
+        return archive.toString();
+    }
+
+    // A name that appears twice is listed once, with the later entry's version, matching what read() and readAll() return
+    @Override
+    public List<SourceEntry> listSources() throws IOException {
+        Map<String, SourceEntry> byPath = new HashMap<>();
+        if (zip) {
+            // The central directory lists entries without decompressing anything
+            try (ZipFile file = new ZipFile(archive.toFile(), StandardCharsets.UTF_8)) {
+                Enumeration<? extends ZipEntry> zipEntries = file.entries();
+                while (zipEntries.hasMoreElements()) {
+                    ZipEntry entry = zipEntries.nextElement();
+                    if (isJavaSource(entry)) {
+                        byPath.put(entry.getName(), new SourceEntry(entry.getName(), Long.toHexString(entry.getCrc())));
+                    }
+                }
+            }
+        } else {
+            try (TarStreamReader tar = new TarStreamReader(openTarStream())) {
+                for (TarStreamReader.Entry entry = tar.next(); entry != null; entry = tar.next()) {
+                    if (isJavaSource(entry.getName())) {
+                        byPath.put(entry.getName(), new SourceEntry(entry.getName(), entry.getSize() + "-" + entry.getModifiedSeconds()));
+                    }
+                }
+            }
+        }
+        List<SourceEntry> entries = new ArrayList<>(byPath.values());
+        entries.sort(Comparator.comparing(SourceEntry::getPath));
+        LOG.info("Listed {} Java entries in {}", entries.size(), archive);
+        return entries;
+    }
+
+    @Override
+    public String read(SourceEntry entry) throws IOException {
+        if (zip) {
+            try (ZipFile file = new ZipFile(archive.toFile(), StandardCharsets.UTF_8)) {
+                ZipEntry zipEntry = file.getEntry(entry.getPath());
+                if (zipEntry == null) {
+                    throw new FileNotFoundException(entry.getPath());
+                }
+                try (InputStream in = file.getInputStream(zipEntry)) {
+                    return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        // ZipFile.getEntry already answers with the last of duplicate names; a tar is read to the end for the same rule
+        String content = null;
+        try (TarStreamReader tar = new TarStreamReader(openTarStream())) {
+            for (TarStreamReader.Entry tarEntry = tar.next(); tarEntry != null; tarEntry = tar.next()) {
+                if (tarEntry.getName().equals(entry.getPath())) {
+                    content = new String(tar.readContent(), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        if (content == null) {
+            throw new FileNotFoundException(entry.getPath());
+        }
+        return content;
+    }
+
+    @Override
+    public <T> List<SourceDownloader.Result<T>> readAll(List<SourceEntry> entries, SourceDownloader downloader,
+                                                        SourceDownloader.Processor<T> processor) throws Exception {
+        List<String> paths = new ArrayList<>(entries.size());
+        for (SourceEntry entry : entries) {
+            paths.add(entry.getPath());
+        }
+        return downloader.processStream(paths, this::streamJavaEntries, processor);
+    }
+
+    // One pass over the archive with the listing's filter; non-Java entries are skipped without being decoded
+    private void streamJavaEntries(SourceDownloader.ContentSink sink) throws IOException, InterruptedException {
+        if (zip) {
+            try (ZipInputStream in = new ZipInputStream(new BufferedInputStream(Files.newInputStream(archive)),
+                    StandardCharsets.UTF_8)) {
+                for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                    if (isJavaSource(entry)) {
+                        sink.accept(entry.getName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                    }
+                }
+            }
+            return;
+        }
+        try (TarStreamReader tar = new TarStreamReader(openTarStream())) {
+            for (TarStreamReader.Entry entry = tar.next(); entry != null; entry = tar.next()) {
+                if (isJavaSource(entry.getName())) {
+                    sink.accept(entry.getName(), new String(tar.readContent(), StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    private static boolean isJavaSource(ZipEntry entry) {
+        return !entry.isDirectory() && isJavaSource(entry.getName());
+    }
+
+    // Same rule as the local walk: .java files outside hidden directories
+    private static boolean isJavaSource(String name) {
+        return name.endsWith(".java") && !name.startsWith(".") && !name.contains("/.");
+    }
+
+    private InputStream openTarStream() throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(archive), 64 * 1024);
+        String name = archive.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".tar") ? in : new GZIPInputStream(in, 64 * 1024);
+    }
+}
@@ -0,0 +1,271 @@
+package finalproject;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.cdimascio.dotenv.Dotenv;
+import javiergs.tulip.GitHubHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ROLE: Entry point.
+ * Headless batch mode: analyzes many GitHub folders, local folders, or archives concurrently and writes results to disk.
+ * Each input runs GitFetch's stages on a shared, bounded pool; GitHub requests share one client and its adaptive limiter.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class BatchMain {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchMain.class);
+    private static final String USAGE = "Usage: BatchMain [--input <file>] [--out <dir>] [--threads <n>] [--downloads <n>] [<url-or-path>...]";
+
+    /**
+     * Summary row for one location and whether it succeeded.
+     */
+    private static final class Outcome {
+        private final boolean succeeded;
+        private final String row;
+
+        private Outcome(boolean succeeded, String row) {
+            this.succeeded = succeeded;
+            this.row = row;
+        }
+    }
+
+    private final Path outputDirectory;
+    private final int threads;
+    private final int downloadConcurrency;
+    private final GitHubHandler gitHubHandler;
+    private final GitHubClient gitHubClient;
+    private final Path cacheRoot;
+    private final SourceCache sourceCache;
+    private final AtomicInteger nextJobId = new AtomicInteger(1);
+
+    public BatchMain(Path outputDirectory, int threads, int downloadConcurrency, String token, Path cacheRoot,
+                     SourceCache sourceCache) {
+        this.outputDirectory = outputDirectory;
+        this.threads = threads;
+        this.downloadConcurrency = downloadConcurrency;
+        this.cacheRoot = cacheRoot;
+        this.sourceCache = sourceCache;
+        if (token == null || token.isBlank()) {
+            this.gitHubHandler = null;
+            this.gitHubClient = null;
+        } else {
+            this.gitHubHandler = new GitHubHandler(token);
+            // One limiter for the whole batch, so concurrent repos never exceed the download cap together
+            AdaptiveLimiter limiter = new AdaptiveLimiter(Math.min(4, downloadConcurrency), 1, downloadConcurrency);
+            this.gitHubClient = new GitHubClient(GitHubClient.DEFAULT_API_BASE, token, limiter, GitHubClient.DEFAULT_MAX_ATTEMPTS);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> locations = new ArrayList<>();
+        Path outputDirectory = Path.of("target", "batch");
+        int threads = Runtime.getRuntime().availableProcessors();
+        int downloads = SourceDownloader.DEFAULT_CONCURRENCY;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--input" -> locations.addAll(readLocations(Path.of(args[++i])));
+                    case "--out" -> outputDirectory = Path.of(args[++i]);
+                    case "--threads" -> threads = Math.max(1, Integer.parseInt(args[++i]));
+                    case "--downloads" -> downloads = Math.max(1, Integer.parseInt(args[++i]));
+                    default -> locations.add(args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException ex) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        if (locations.isEmpty()) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        Dotenv dotenv = Dotenv.configure()
+                .directory("src/main/java/finalproject")
+                .ignoreIfMalformed()
+                .ignoreIfMissing()
+                .load();
+        Path cacheRoot = DiskCache.cacheRoot(dotenv.get("CACHE_DIR"));
+        SourceCache sourceCache = null;
+        try {
+            sourceCache = SourceCache.open(cacheRoot.resolve(SourceCache.DIRECTORY_NAME), SourceCache.DEFAULT_MAX_BYTES);
+        } catch (IOException ex) {
+            LOG.warn("Source cache unavailable; every fetch will download", ex);
+        }
+        BatchMain batch = new BatchMain(outputDirectory, threads, downloads, dotenv.get("GH_ACCESS_TOKEN"), cacheRoot, sourceCache);
+        int failures = batch.run(locations);
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    // Analyzes every location and writes one result folder each plus summary.csv; returns the number of failures
+    public int run(List<String> locations) throws IOException, InterruptedException {
+        Files.createDirectories(outputDirectory);
+        if (gitHubClient != null) {
+            try {
+                gitHubClient.setResponseCache(HttpResponseCache.open(cacheRoot.resolve(HttpResponseCache.DIRECTORY_NAME),
+                        HttpResponseCache.DEFAULT_MAX_BYTES));
+            } catch (IOException ex) {
+                LOG.warn("HTTP response cache unavailable; requests will not be revalidated", ex);
+            }
+        }
+        LOG.info("Batch analyzing {} locations on {} threads (download cap {})", locations.size(), threads, downloadConcurrency);
+        long started = System.nanoTime();
+
+        // Repos run on a fixed pool sized to the cores; each one downloads on virtual threads behind the shared limiter
+        AtomicInteger workerCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread worker = new Thread(runnable, "BatchWorker-" + workerCount.incrementAndGet());
+            worker.setDaemon(true);
+            return worker;
+        });
+        List<Future<Outcome>> outcomes = new ArrayList<>();
+        try {
+            for (int i = 0; i < locations.size(); i++) {
+                int index = i + 1;
+                String location = locations.get(i);
+                outcomes.add(executor.submit(() -> analyzeOne(index, location)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int failures = 0;
+        try (BufferedWriter summary = Files.newBufferedWriter(outputDirectory.resolve("summary.csv"), StandardCharsets.UTF_8)) {
+            summary.write("index,location,status,files,failedDownloads,millis,folder,error\n");
+            for (Future<Outcome> future : outcomes) {
+                Outcome outcome;
+                try {
+                    outcome = future.get();
+                } catch (ExecutionException ex) {
+                    throw new IllegalStateException("Batch worker failed unexpectedly", ex.getCause());
+                }
+                if (!outcome.succeeded) {
+                    failures++;
+                }
+                summary.write(outcome.row);
+            }
+        }
+        LOG.info("Batch finished in {} ms: {} succeeded, {} failed", (System.nanoTime() - started) / 1_000_000,
+                locations.size() - failures, failures);
+        return failures;
+    }
+
+    // One repository end to end; never throws so a bad input only fails its own summary row
+    private Outcome analyzeOne(int index, String location) {
+        String folder = String.format("%03d-%s", index, slug(location));
+        AnalysisJob job = new AnalysisJob(nextJobId.getAndIncrement(), location, () -> { });
+        job.markRunning();
+        try {
+            // Same input rules as the UI; batch runs always use the per-file GitHub fetch
+            SourceProvider provider = SourceProviders.forLocation(location, gitHubHandler, gitHubClient, sourceCache, false);
+            GitFetch fetch = new GitFetch(provider, downloadConcurrency);
+            AnalysisSnapshot snapshot = fetch.analyze(job);
+            job.beginStage("Write");
+            writeResults(outputDirectory.resolve(folder), snapshot);
+            job.finish(AnalysisJob.State.SUCCEEDED);
+            LOG.info("Analyzed {} ({} files) in {} ms {}", location, snapshot.getGridFiles().size(),
+                    job.getElapsedMillis(), job.getStageMillis());
+            return new Outcome(true, String.format(Locale.ROOT, "%d,%s,%s,%d,%d,%d,%s,\n", index, csv(location), job.getState(),
+                    snapshot.getGridFiles().size(), fetch.getFailedDownloads(), job.getElapsedMillis(), folder));
+        } catch (Exception ex) {
+            job.finish(AnalysisJob.State.FAILED);
+            LOG.error("Batch analysis failed for {}", location, ex);
+            return new Outcome(false, String.format(Locale.ROOT, "%d,%s,%s,0,0,%d,,%s\n", index, csv(location), job.getState(),
+                    job.getElapsedMillis(), csv(String.valueOf(ex.getMessage()))));
+        }
+    }
+
+    static void writeResults(Path directory, AnalysisSnapshot snapshot) throws IOException {
+        Files.createDirectories(directory);
+        try (BufferedWriter grid = Files.newBufferedWriter(directory.resolve("grid.csv"), StandardCharsets.UTF_8)) {
+            grid.write("path,lines,complexity,methods,maxMethodComplexity\n");
+            for (GridFileData file : snapshot.getGridFiles()) {
+                grid.write(csv(file.getName()) + ',' + file.getLineCount() + ',' + file.getComplexity() + ','
+                        + file.getMethods().size() + ',' + file.getMaxMethodComplexity() + '\n');
+            }
+        }
+        try (BufferedWriter methods = Files.newBufferedWriter(directory.resolve("methods.csv"), StandardCharsets.UTF_8)) {
+            methods.write("path,method,line,complexity\n");
+            for (GridFileData file : snapshot.getGridFiles()) {
+                for (GridFileData.MethodComplexity method : file.getMethods()) {
+                    methods.write(csv(file.getName()) + ',' + csv(method.getName()) + ',' + method.getLine() + ','
+                            + method.getComplexity() + '\n');
+                }
+            }
+        }
+        try (BufferedWriter dia = Files.newBufferedWriter(directory.resolve("dia.csv"), StandardCharsets.UTF_8)) {
+            dia.write("path,abstractness,instability,distance,incoming,outgoing\n");
+            for (DiaMetricsData metric : snapshot.getDiaMetrics()) {
+                dia.write(String.format(Locale.ROOT, "%s,%.4f,%.4f,%.4f,%d,%d\n", csv(metric.getName()), metric.getAbstractness(),
+                        metric.getInstability(), metric.getDistance(), metric.getIncoming(), metric.getOutgoing()));
+            }
+        }
+        try (BufferedWriter packages = Files.newBufferedWriter(directory.resolve("packages.csv"), StandardCharsets.UTF_8)) {
+            packages.write("package,classes,abstract,abstractness,instability,distance,afferent,efferent\n");
+            for (PackageMetricsData metric : snapshot.getPackageMetrics()) {
+                packages.write(String.format(Locale.ROOT, "%s,%d,%d,%.4f,%.4f,%.4f,%d,%d\n", csv(metric.getName()),
+                        metric.getClassCount(), metric.getAbstractCount(), metric.getAbstractness(), metric.getInstability(),
+                        metric.getDistance(), metric.getAfferent(), metric.getEfferent()));
+            }
+        }
+        try (BufferedWriter cycles = Files.newBufferedWriter(directory.resolve("cycles.csv"), StandardCharsets.UTF_8)) {
+            cycles.write("cycle,size,path,class\n");
+            for (CycleGroupData group : snapshot.getCycleGroups()) {
+                for (int i = 0; i < group.getSize(); i++) {
+                    cycles.write(group.getId() + "," + group.getSize() + ',' + csv(group.getPaths().get(i)) + ','
+                            + csv(group.getClassNames().get(i)) + '\n');
+                }
+            }
+        }
+        // Streamed from the graph so a large diagram never sits in memory as one string
+        try (BufferedWriter uml = Files.newBufferedWriter(directory.resolve("uml.puml"), StandardCharsets.UTF_8)) {
+            ReachabilityIndex reachability = snapshot.getReachability();
+            new UmlBuilder().write(snapshot.getGraph(), reachability.getComponents(), uml);
+        }
+    }
+
+    // One location per line; blank lines and # comments are skipped
+    private static List<String> readLocations(Path file) throws IOException {
+        List<String> locations = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                locations.add(trimmed);
+            }
+        }
+        return locations;
+    }
+
+    private static String slug(String location) {
+        String trimmed = location.replaceFirst("^https?://(www\\.)?github\\.com/", "").replaceAll("[/\\\\]+$", "");
+        String slug = trimmed.replaceAll("[^A-Za-z0-9._-]+", "_").replaceAll("^[_.]+", "");
+        if (slug.length() > 80) {
+            slug = slug.substring(slug.length() - 80);
+        }
+        return slug.isEmpty() ? "input" : slug;
+    }
+
+    private static String csv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return '"' + value.replace("\"", "\"\"").replace("\n", " ") + '"';
+        }
+        return value;
+    }
+}
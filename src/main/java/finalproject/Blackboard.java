@@ -2,8 +2,11 @@ package finalproject;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * ROLE: Data.
@@ -37,6 +40,15 @@ public class Blackboard {
     // DIA metrics variables
     private final List<Runnable> metricsListeners = new ArrayList<>();
     private final List<DiaMetricsData> diaMetrics = new ArrayList<>();
+    private Set<String> changedMetricPaths;
+    private final List<PackageMetricsData> packageMetrics = new ArrayList<>();
+
+    // Dependency cycle variables
+    private final List<CycleGroupData> cycleGroups = new ArrayList<>();
+    private final Map<String, CycleGroupData> cycleGroupByPath = new HashMap<>();
+
+    // Reachability variables
+    private ReachabilityIndex reachability;
 
     // UML diagram variables
     private final List<Runnable> umlListeners = new ArrayList<>();
@@ -46,6 +58,11 @@ public class Blackboard {
     public void clear() {
         gridFiles.clear();
         diaMetrics.clear();
+        changedMetricPaths = null;
+        packageMetrics.clear();
+        cycleGroups.clear();
+        cycleGroupByPath.clear();
+        reachability = null;
         selectedFile = null;
         maxLineCount = 0;
         setFolderFilter(null);
@@ -130,8 +147,18 @@ public class Blackboard {
     DIA metrics methods
      */
     public void setDiaMetrics(List<DiaMetricsData> newMetrics) {
+        setDiaMetrics(newMetrics, null);
+    }
+
+    // changedPaths lists the files whose metrics differ from the current ones (null = all of them); listeners are not
+    // notified when a reload changed nothing
+    public void setDiaMetrics(List<DiaMetricsData> newMetrics, Set<String> changedPaths) {
         diaMetrics.clear();
         diaMetrics.addAll(newMetrics);
+        changedMetricPaths = changedPaths == null ? null : Set.copyOf(changedPaths);
+        if (changedPaths != null && changedPaths.isEmpty()) {
+            return;
+        }
         notifyMetricsListeners();
     }
 
@@ -139,10 +166,94 @@ public class Blackboard {
         return Collections.unmodifiableList(diaMetrics);
     }
 
+    // Null when every metric should be treated as new
+    public Set<String> getChangedMetricPaths() {
+        return changedMetricPaths;
+    }
+
+    // Stored without notifying; metrics listeners hear about both lists from the setDiaMetrics call that follows
+    public void setPackageMetrics(List<PackageMetricsData> newMetrics) {
+        packageMetrics.clear();
+        packageMetrics.addAll(newMetrics);
+    }
+
+    public List<PackageMetricsData> getPackageMetrics() {
+        return Collections.unmodifiableList(packageMetrics);
+    }
+
     public void addMetricsListener(Runnable listener) {
         metricsListeners.add(listener);
     }
 
+    /*
+    Dependency cycle methods
+     */
+    // Read by views when grid or UML data arrives, so it is set before them and has no listeners of its own
+    public void setCycleGroups(List<CycleGroupData> newGroups) {
+        cycleGroups.clear();
+        cycleGroups.addAll(newGroups);
+        cycleGroupByPath.clear();
+        for (CycleGroupData group : newGroups) {
+            for (String path : group.getPaths()) {
+                cycleGroupByPath.put(path, group);
+            }
+        }
+    }
+
+    public List<CycleGroupData> getCycleGroups() {
+        return Collections.unmodifiableList(cycleGroups);
+    }
+
+    // Null when the file is in no cycle
+    public CycleGroupData getCycleGroupOf(String path) {
+        return cycleGroupByPath.get(path);
+    }
+
+    /*
+    Reachability methods
+     */
+    // Set before the grid, like the cycle groups; the selection queries below answer from it without walking the graph
+    public void setReachability(ReachabilityIndex reachability) {
+        this.reachability = reachability;
+    }
+
+    public ReachabilityIndex getReachability() {
+        return reachability;
+    }
+
+    // True when the selected file depends on this one, directly or transitively
+    public boolean isDependencyOfSelection(String path) {
+        int selected = selectedNode();
+        int node = nodeOf(path);
+        return selected >= 0 && node >= 0 && reachability.dependsOn(selected, node);
+    }
+
+    // True when this file depends on the selected one, directly or transitively
+    public boolean isDependentOfSelection(String path) {
+        int selected = selectedNode();
+        int node = nodeOf(path);
+        return selected >= 0 && node >= 0 && reachability.dependsOn(node, selected);
+    }
+
+    // Transitive counts for the selected file; 0 when nothing is selected
+    public int getSelectionDependencyCount() {
+        int selected = selectedNode();
+        return selected < 0 ? 0 : reachability.countDependencies(selected);
+    }
+
+    public int getSelectionDependentCount() {
+        int selected = selectedNode();
+        return selected < 0 ? 0 : reachability.countDependents(selected);
+    }
+
+    private int selectedNode() {
+        return selectedFile == null ? -1 : nodeOf(selectedFile.getName());
+    }
+
+    private int nodeOf(String path) {
+        return reachability == null ? -1 : reachability.getGraph().nodeOfPath(path);
+    }
+
     /*
     UML diagram data methods
      */
@@ -3,6 +3,8 @@ package finalproject;
 import java.awt.BorderLayout;
 import java.awt.FlowLayout;
 import java.awt.Font;
+import java.util.Locale;
+import java.util.Map;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
@@ -11,7 +13,7 @@ import javax.swing.SwingConstants;
 /**
  * ROLE: View.
  * Bottom status bar that shows progress and aggregated metrics for the current view.
- * Listens to Blackboard updates and displays messages set by the Controller and GitFetch.
+ * Listens to Blackboard updates and displays messages set by the Controller and GitFetch, plus the current analysis job.
  *
  * @author Parker Jones
  * @author Ashley Aring
@@ -27,6 +29,8 @@ public class BottomBar extends JPanel {
 
     private final Blackboard blackboard = Blackboard.getInstance();
     private final JLabel statusLabel;
+    private final JLabel jobLabel;
+    private final AnalysisScheduler scheduler = AnalysisScheduler.getInstance();
 
     private ViewMode viewMode = ViewMode.GRID;
     private int fileCount;
@@ -48,9 +52,15 @@ public class BottomBar extends JPanel {
         statusPanel.setBorder(javax.swing.BorderFactory.createEmptyBorder(6, 10, 6, 10));
         add(statusPanel, BorderLayout.CENTER);
 
+        jobLabel = new JLabel("", SwingConstants.RIGHT);
+        jobLabel.setBorder(javax.swing.BorderFactory.createEmptyBorder(6, 10, 6, 10));
+        add(jobLabel, BorderLayout.EAST);
+
         blackboard.addDataListener(this::recomputeGridStats);
+        blackboard.addSelectionListener(this::updateInfoLabel);
         blackboard.addMetricsListener(this::recomputeDiaStats);
         blackboard.addUmlListener(this::recomputeUmlStats);
+        scheduler.addJobListener(this::refreshJobLabel);
     }
 
     public void setStatusMessage(String message) {
@@ -95,13 +105,7 @@ public class BottomBar extends JPanel {
     private void recomputeUmlStats() {
         SwingUtilities.invokeLater(() -> {
             UmlDiagramData uml = blackboard.getUmlDiagram();
-            if (uml == null || uml.getPlantUmlText() == null) {
-                umlRelations = 0;
-            } else {
-                umlRelations = (int) uml.getPlantUmlText().lines()
-                        .filter(line -> line.contains("..>"))
-                        .count();
-            }
+            umlRelations = uml == null ? 0 : uml.getRelationCount();
             updateInfoLabel();
         });
     }
@@ -113,7 +117,7 @@ public class BottomBar extends JPanel {
         } else {
             switch (viewMode) {
                 case GRID -> text = String.format("Avg lines: %.1f | Avg complexity: %.1f",
-                        avgLines, avgComplexity);
+                        avgLines, avgComplexity) + selectionImpact();
                 case DIA -> text = String.format("Avg instability: %.2f | Avg distance: %.2f",
                         avgInstability, avgDistance);
                 case UML -> text = String.format("Classes: %d | Relations: %d", fileCount, umlRelations);
@@ -124,6 +128,47 @@ public class BottomBar extends JPanel {
         statusLabel.setHorizontalAlignment(SwingConstants.CENTER);
     }
 
+    // Transitive impact of the selected file, from the Blackboard's reachability index
+    private String selectionImpact() {
+        GridFileData selected = blackboard.getSelectedFile();
+        if (selected == null || blackboard.getReachability() == null) {
+            return "";
+        }
+        return String.format(" | %s: depends on %d, used by %d", ParsedSource.extractClassName(selected.getName()),
+                blackboard.getSelectionDependencyCount(), blackboard.getSelectionDependentCount());
+    }
+
+    // Job state and stage timings from the AnalysisScheduler; details go in the tooltip
+    private void refreshJobLabel() {
+        SwingUtilities.invokeLater(() -> {
+            AnalysisJob job = scheduler.getLatestJob();
+            if (job == null) {
+                jobLabel.setText("");
+                jobLabel.setToolTipText(null);
+                return;
+            }
+            String state = job.getState().name().toLowerCase(Locale.ROOT);
+            String text;
+            if (job.getState() == AnalysisJob.State.RUNNING && job.getCurrentStage() != null) {
+                text = String.format("Job #%d %s: %s", job.getId(), state, job.getCurrentStage());
+            } else if (job.getState() == AnalysisJob.State.QUEUED) {
+                text = String.format("Job #%d %s", job.getId(), state);
+            } else {
+                text = String.format("Job #%d %s in %.1fs", job.getId(), state, job.getElapsedMillis() / 1000.0);
+            }
+            jobLabel.setText(text);
+            jobLabel.setToolTipText(buildTimingTooltip(job));
+        });
+    }
+
+    private String buildTimingTooltip(AnalysisJob job) {
+        StringBuilder builder = new StringBuilder(job.getLabel());
+        for (Map.Entry<String, Long> stage : job.getStageMillis().entrySet()) {
+            builder.append(" | ").append(stage.getKey()).append(": ").append(stage.getValue()).append(" ms");
+        }
+        return builder.toString();
+    }
+
     public void clearOverride() {
         overrideMessage = null;
         updateInfoLabel();
@@ -0,0 +1,136 @@
+package finalproject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * ROLE: Service.
+ * Precompiled matcher for the repo class-name set: a Bloom filter rejects most identifiers, then a trie DFA confirms and returns the name's id.
+ * Built once per analysis and shared by every file; matching reads characters in place, so no substring is created per identifier.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class ClassNameMatcher {
+
+    public static final int NO_MATCH = -1;
+
+    private final String[] names;
+    private final int minLength;
+    private final int maxLength;
+    private final NameFilter bloom;
+    // Trie transitions in an open-addressing table: key = (state << 16 | char) + 1, 0 marks an empty slot
+    private final long[] transitionKeys;
+    private final int[] transitionTargets;
+    private final int transitionMask;
+    // State -> name id, or NO_MATCH when no name ends there
+    private final int[] accepting;
+    private int stateCount = 1;
+
+    public ClassNameMatcher(Collection<String> classNames) {
+        // Sorted so ids are stable across runs for the same name set
+        List<String> sorted = new ArrayList<>(new TreeSet<>(classNames));
+        this.names = sorted.toArray(new String[0]);
+
+        int totalChars = 0;
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (String name : names) {
+            totalChars += name.length();
+            min = Math.min(min, name.length());
+            max = Math.max(max, name.length());
+        }
+        this.minLength = names.length == 0 ? 1 : min;
+        this.maxLength = max;
+
+        this.bloom = new NameFilter(names.length);
+
+        int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, totalChars * 2) - 1) << 1);
+        this.transitionKeys = new long[capacity];
+        this.transitionTargets = new int[capacity];
+        this.transitionMask = capacity - 1;
+        this.accepting = new int[Math.max(2, totalChars + 1)];
+        accepting[0] = NO_MATCH;
+
+        for (int id = 0; id < names.length; id++) {
+            add(names[id], id);
+        }
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String nameOf(int id) {
+        return names[id];
+    }
+
+    public int match(CharSequence name) {
+        return match(name, 0, name.length());
+    }
+
+    // Id of the class named exactly text[start, end), or NO_MATCH
+    public int match(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length < minLength || length > maxLength) {
+            return NO_MATCH;
+        }
+        if (!bloom.mightContain(NameFilter.hash(text, start, end))) {
+            return NO_MATCH;
+        }
+        int state = 0;
+        for (int i = start; i < end; i++) {
+            state = transition(state, text.charAt(i));
+            if (state < 0) {
+                return NO_MATCH;
+            }
+        }
+        return accepting[state];
+    }
+
+    private void add(String name, int id) {
+        bloom.add(name);
+        int state = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            int next = transition(state, c);
+            if (next < 0) {
+                next = stateCount++;
+                accepting[next] = NO_MATCH;
+                putTransition(state, c, next);
+            }
+            state = next;
+        }
+        accepting[state] = id;
+    }
+
+    private int transition(int state, char c) {
+        long key = (((long) state << 16) | c) + 1;
+        int slot = slotOf(key);
+        while (transitionKeys[slot] != 0) {
+            if (transitionKeys[slot] == key) {
+                return transitionTargets[slot];
+            }
+            slot = (slot + 1) & transitionMask;
+        }
+        return -1;
+    }
+
+    private void putTransition(int state, char c, int target) {
+        long key = (((long) state << 16) | c) + 1;
+        int slot = slotOf(key);
+        while (transitionKeys[slot] != 0) {
+            slot = (slot + 1) & transitionMask;
+        }
+        transitionKeys[slot] = key;
+        transitionTargets[slot] = target;
+    }
+
+    private int slotOf(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 32) & transitionMask;
+    }
+}
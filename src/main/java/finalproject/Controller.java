@@ -2,6 +2,8 @@ package finalproject;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.nio.file.Path;
 import javax.swing.JOptionPane;
 import io.github.cdimascio.dotenv.Dotenv;
 import javiergs.tulip.GitHubHandler;
@@ -25,8 +27,13 @@ public class Controller implements ActionListener {
     private final MenuBar menuBar;
     private final Blackboard blackboard;
     private final GitHubHandler gitHubHandler;
+    private final GitHubClient gitHubClient;
+    private final SourceCache sourceCache;
+    private final DiagramCache diagramCache;
+    private final int downloadConcurrency;
 
     private String lastUrl;
+    private AnalysisSnapshot lastSnapshot;
 
     public Controller(SearchBar searchBar, BottomBar bottomBar, MenuBar menuBar) {
         this.searchBar = searchBar;
@@ -38,18 +45,86 @@ public class Controller implements ActionListener {
                 .ignoreIfMalformed()
                 .ignoreIfMissing()
                 .load();
+        this.downloadConcurrency = parseConcurrency(dotenv.get("DOWNLOAD_CONCURRENCY"));
+        Path cacheRoot = DiskCache.cacheRoot(dotenv.get("CACHE_DIR"));
         String token = dotenv.get("GH_ACCESS_TOKEN");
         if (token == null || token.isBlank()) {
             LOG.warn("GH_ACCESS_TOKEN missing; prompt user to configure .env");
             gitHubHandler = null;
+            gitHubClient = null;
             bottomBar.setStatusMessage("Add GH_ACCESS_TOKEN in src/main/java/finalproject/.env and retry.");
         } else {
             this.gitHubHandler = new GitHubHandler(token);
+            // The limiter adapts below DOWNLOAD_CONCURRENCY, which stays the hard cap on parallel requests
+            AdaptiveLimiter limiter = new AdaptiveLimiter(Math.min(4, downloadConcurrency), 1, downloadConcurrency);
+            this.gitHubClient = new GitHubClient(GitHubClient.DEFAULT_API_BASE, token, limiter, GitHubClient.DEFAULT_MAX_ATTEMPTS);
+            gitHubClient.setResponseCache(openResponseCache(cacheRoot, dotenv.get("HTTP_CACHE_MB")));
         }
+        this.sourceCache = openSourceCache(cacheRoot, dotenv.get("SOURCE_CACHE_MB"));
+        this.diagramCache = openDiagramCache(cacheRoot, dotenv.get("DIAGRAM_CACHE_MB"));
 
         attachListeners();
     }
 
+    // Handed to DiagramTab by Main so rendered diagrams survive reloads and restarts
+    public DiagramCache getDiagramCache() {
+        return diagramCache;
+    }
+
+    private int parseConcurrency(String value) {
+        if (value == null || value.isBlank()) {
+            return SourceDownloader.DEFAULT_CONCURRENCY;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException ex) {
+            LOG.warn("Ignoring invalid DOWNLOAD_CONCURRENCY value: {}", value);
+            return SourceDownloader.DEFAULT_CONCURRENCY;
+        }
+    }
+
+    private SourceCache openSourceCache(Path cacheRoot, String sizeMb) {
+        long maxBytes = parseMegabytes("SOURCE_CACHE_MB", sizeMb, SourceCache.DEFAULT_MAX_BYTES);
+        try {
+            return SourceCache.open(cacheRoot.resolve(SourceCache.DIRECTORY_NAME), maxBytes);
+        } catch (IOException ex) {
+            LOG.warn("Source cache unavailable; every fetch will download", ex);
+            return null;
+        }
+    }
+
+    private DiagramCache openDiagramCache(Path cacheRoot, String sizeMb) {
+        long maxBytes = parseMegabytes("DIAGRAM_CACHE_MB", sizeMb, DiagramCache.DEFAULT_MAX_BYTES);
+        try {
+            return DiagramCache.open(cacheRoot.resolve(DiagramCache.DIRECTORY_NAME), maxBytes);
+        } catch (IOException ex) {
+            LOG.warn("Diagram disk cache unavailable; keeping rendered diagrams in memory only", ex);
+            return new DiagramCache(null, DiagramCache.DEFAULT_MEMORY_ENTRIES);
+        }
+    }
+
+    private HttpResponseCache openResponseCache(Path cacheRoot, String sizeMb) {
+        long maxBytes = parseMegabytes("HTTP_CACHE_MB", sizeMb, HttpResponseCache.DEFAULT_MAX_BYTES);
+        try {
+            return HttpResponseCache.open(cacheRoot.resolve(HttpResponseCache.DIRECTORY_NAME), maxBytes);
+        } catch (IOException ex) {
+            LOG.warn("HTTP response cache unavailable; requests will not be revalidated", ex);
+            return null;
+        }
+    }
+
+    private long parseMegabytes(String name, String value, long defaultBytes) {
+        if (value == null || value.isBlank()) {
+            return defaultBytes;
+        }
+        try {
+            return Math.max(0L, Long.parseLong(value.trim())) * 1024 * 1024;
+        } catch (NumberFormatException ex) {
+            LOG.warn("Ignoring invalid {} value: {}", name, value);
+            return defaultBytes;
+        }
+    }
+
     // Wires UI controls to controller actions
     private void attachListeners() {
         searchBar.getOkButton().addActionListener(this);
@@ -84,7 +159,7 @@ public class Controller implements ActionListener {
     }
 
     private void promptForUrl() {
-        String url = JOptionPane.showInputDialog(searchBar, "Enter GitHub folder URL:", lastUrl == null ? "" : lastUrl);
+        String url = JOptionPane.showInputDialog(searchBar, "Enter GitHub folder URL, local folder, or archive:", lastUrl == null ? "" : lastUrl);
         if (url != null) {
             url = url.trim();
             if (!url.isEmpty()) {
@@ -102,12 +177,14 @@ public class Controller implements ActionListener {
             return;
         }
         LOG.info("Reloading URL: {}", lastUrl);
-        fetchUrl(lastUrl);
+        fetchUrl(lastUrl, lastSnapshot);
     }
 
     private void clearResults() {
         LOG.info("Clear requested.");
+        AnalysisScheduler.getInstance().cancelAll();
         blackboard.clear();
+        lastSnapshot = null;
         bottomBar.setStatusMessage("Cleared.");
     }
 
@@ -117,25 +194,34 @@ public class Controller implements ActionListener {
     }
 
     private void fetchUrl(String url) {
-        if (gitHubHandler == null) {
-            bottomBar.setStatusMessage("Missing GH_ACCESS_TOKEN; add it to .env then retry.");
-            LOG.warn("Fetch aborted: no GH_ACCESS_TOKEN configured.");
-            return;
-        }
-        if (url == null || url.isBlank() || url.contains(" ")) {
-            bottomBar.setStatusMessage("Incorrect URL, please enter a GitHub URL in full");
-            LOG.warn("Rejected URL input (blank or contains spaces): {}", url);
-            return;
-        }
-        if (!url.toLowerCase().contains("github.com")) {
-            bottomBar.setStatusMessage("Incorrect URL, please enter a GitHub URL in full");
-            LOG.warn("Rejected non-GitHub URL: {}", url);
+        fetchUrl(url, null);
+    }
+
+    // A baseline from the same URL lets GitFetch re-analyze only what changed
+    private void fetchUrl(String url, AnalysisSnapshot baseline) {
+        SourceProvider provider = createProvider(url);
+        if (provider == null) {
             return;
         }
 
         bottomBar.setStatusMessage("Fetching...");
         lastUrl = url;
-        LOG.info("Starting fetch for URL: {}", url);
-        new GitFetch(url, gitHubHandler, blackboard, bottomBar).start();
+        LOG.info("Starting {} fetch for: {}", baseline == null ? "full" : "incremental", url);
+        GitFetch fetch = new GitFetch(provider, blackboard, bottomBar, downloadConcurrency);
+        fetch.setBaseline(baseline);
+        fetch.setOnComplete(snapshot -> lastSnapshot = snapshot);
+        fetch.start();
+    }
+
+    // SourceProviders decides what the input is; a rejected input only updates the status bar
+    private SourceProvider createProvider(String url) {
+        try {
+            return SourceProviders.forLocation(url, gitHubHandler, gitHubClient, sourceCache,
+                    menuBar.getArchiveFetchItem().isSelected());
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            bottomBar.setStatusMessage(ex.getMessage());
+            LOG.warn("Rejected input {}: {}", url, ex.getMessage());
+            return null;
+        }
     }
 }
@@ -0,0 +1,44 @@
+package finalproject;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ROLE: Data.
+ * One dependency cycle: a strongly connected group of two or more classes that all reach each other.
+ * Found by StronglyConnectedComponents after the DIA step and highlighted by FileSquare and the UML diagram.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class CycleGroupData {
+
+    private final int id;
+    private final List<String> paths;
+    private final List<String> classNames;
+
+    public CycleGroupData(int id, List<String> paths, List<String> classNames) {
+        this.id = id;
+        this.paths = Collections.unmodifiableList(paths);
+        this.classNames = Collections.unmodifiableList(classNames);
+    }
+
+    // 1 for the largest group, then by decreasing size
+    public int getId() {
+        return id;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    // Qualified names, in the same order as getPaths()
+    public List<String> getClassNames() {
+        return classNames;
+    }
+
+    public int getSize() {
+        return paths.size();
+    }
+}
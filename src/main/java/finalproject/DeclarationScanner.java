@@ -0,0 +1,543 @@
+package finalproject;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * ROLE: Service.
+ * Finds every type declaration header and method body in one pass over a file's tokens, counting decision points as it goes.
+ * Headers may span lines and carry annotations or generics; SourceAnalyzer reads the primary type and per-method complexity from the result.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class DeclarationScanner {
+
+    public enum Kind {
+        CLASS,
+        INTERFACE,
+        ENUM,
+        RECORD,
+        ANNOTATION
+    }
+
+    /**
+     * One class, interface, enum, record, or annotation header; type names are simple names without generic arguments.
+     */
+    public static final class TypeDeclaration {
+        private final String name;
+        private final Kind kind;
+        private final int modifiers;
+        private final TypeDeclaration enclosing;
+        private final int line;
+        private final List<String> superTypes = new ArrayList<>();
+        private final List<String> interfaces = new ArrayList<>();
+        private final List<String> bounds = new ArrayList<>();
+
+        TypeDeclaration(String name, Kind kind, int modifiers, TypeDeclaration enclosing, int line) {
+            this.name = name;
+            this.kind = kind;
+            this.modifiers = modifiers;
+            this.enclosing = enclosing;
+            this.line = line;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        // java.lang.reflect.Modifier bits
+        public int getModifiers() {
+            return modifiers;
+        }
+
+        public boolean isAbstract() {
+            return Modifier.isAbstract(modifiers);
+        }
+
+        public TypeDeclaration getEnclosing() {
+            return enclosing;
+        }
+
+        public boolean isTopLevel() {
+            return enclosing == null;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        // The extends clause: at most one entry for a class, any number for an interface
+        public List<String> getSuperTypes() {
+            return Collections.unmodifiableList(superTypes);
+        }
+
+        public String getSuperclass() {
+            return kind == Kind.CLASS && !superTypes.isEmpty() ? superTypes.get(0) : null;
+        }
+
+        public List<String> getInterfaces() {
+            return Collections.unmodifiableList(interfaces);
+        }
+
+        // Types named in the bounds of the declaration's own type parameters
+        public List<String> getBounds() {
+            return Collections.unmodifiableList(bounds);
+        }
+    }
+
+    /**
+     * One method or constructor body; complexity is 1 plus its decision points, including those in its lambdas and local classes.
+     */
+    public static final class MethodDeclaration {
+        private final String name;
+        private final TypeDeclaration owner;
+        private final int line;
+        private int complexity = 1;
+
+        MethodDeclaration(String name, TypeDeclaration owner, int line) {
+            this.name = name;
+            this.owner = owner;
+            this.line = line;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // Type whose body declares the method; null only for malformed input
+        public TypeDeclaration getOwner() {
+            return owner;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public int getComplexity() {
+            return complexity;
+        }
+    }
+
+    /**
+     * Everything one scan finds in a file.
+     */
+    public static final class Result {
+        private final List<TypeDeclaration> types;
+        private final List<MethodDeclaration> methods;
+        private final int decisionPoints;
+
+        Result(List<TypeDeclaration> types, List<MethodDeclaration> methods, int decisionPoints) {
+            this.types = types;
+            this.methods = methods;
+            this.decisionPoints = decisionPoints;
+        }
+
+        public List<TypeDeclaration> getTypes() {
+            return types;
+        }
+
+        public List<MethodDeclaration> getMethods() {
+            return methods;
+        }
+
+        // if, for, while, do, case, catch, &&, ||, ?: and lambdas across the whole file, field initializers included
+        public int getDecisionPoints() {
+            return decisionPoints;
+        }
+    }
+
+    private final JavaLexer.Tokens tokens;
+    private final List<TypeDeclaration> declarations = new ArrayList<>();
+    private final List<MethodDeclaration> methods = new ArrayList<>();
+    // Open type bodies with the brace depth just inside each
+    private final Deque<TypeDeclaration> openTypes = new ArrayDeque<>();
+    private final Deque<Integer> openDepths = new ArrayDeque<>();
+    private int braceDepth;
+    // Method body being scanned, and the brace depth just inside it
+    private MethodDeclaration method;
+    private int methodDepth;
+    // Brace depths of open do { } bodies, and do-while conditions still to come, so that while is not counted twice
+    private final Deque<Integer> doBodies = new ArrayDeque<>();
+    private int pendingDoWhiles;
+    // Between case and its ':' or '->', so a switch rule arrow is not taken for a lambda (default -> is checked directly)
+    private boolean inCaseLabel;
+    private int decisionPoints;
+
+    private DeclarationScanner(JavaLexer.Tokens tokens) {
+        this.tokens = tokens;
+    }
+
+    public static Result scan(JavaLexer.Tokens tokens) {
+        DeclarationScanner scanner = new DeclarationScanner(tokens);
+        scanner.run();
+        return new Result(scanner.declarations, scanner.methods, scanner.decisionPoints);
+    }
+
+    // The file's own type: the top-level declaration named like the file, else any declaration with that name
+    public static TypeDeclaration primary(List<TypeDeclaration> declarations, String className) {
+        TypeDeclaration nested = null;
+        for (TypeDeclaration declaration : declarations) {
+            if (declaration.getName().equals(className)) {
+                if (declaration.isTopLevel()) {
+                    return declaration;
+                }
+                if (nested == null) {
+                    nested = declaration;
+                }
+            }
+        }
+        return nested;
+    }
+
+    private void run() {
+        int pendingModifiers = 0;
+        int i = 0;
+        while (i < tokens.size()) {
+            countDecision(i);
+            if (tokens.isOperator(i, '{')) {
+                openBlock(i);
+                pendingModifiers = 0;
+                i++;
+            } else if (tokens.isOperator(i, '}')) {
+                closeBrace();
+                pendingModifiers = 0;
+                i++;
+            } else if (tokens.isOperator(i, '@') && tokens.is(i + 1, "interface")) {
+                i = declaration(i + 1, Kind.ANNOTATION, pendingModifiers);
+                pendingModifiers = 0;
+            } else if (tokens.isOperator(i, '@')) {
+                i = skipAnnotation(i);
+            } else if (tokens.type(i) == JavaLexer.IDENTIFIER) {
+                int modifier = modifierOf(i);
+                Kind kind = kindOf(i);
+                if (modifier != 0) {
+                    pendingModifiers |= modifier;
+                    i++;
+                } else if (kind != null) {
+                    i = declaration(i, kind, pendingModifiers);
+                    pendingModifiers = 0;
+                } else if (tokens.is(i, "sealed")) {
+                    i++;
+                } else if (tokens.is(i, "non") && tokens.isOperator(i + 1, '-') && tokens.is(i + 2, "sealed")) {
+                    i += 3;
+                } else {
+                    pendingModifiers = 0;
+                    i++;
+                }
+            } else {
+                pendingModifiers = 0;
+                i++;
+            }
+        }
+    }
+
+    private void openBlock(int brace) {
+        if (method == null) {
+            method = methodAt(brace);
+            if (method != null) {
+                methods.add(method);
+                methodDepth = braceDepth + 1;
+            }
+        }
+        braceDepth++;
+        if (tokens.is(brace - 1, "do")) {
+            doBodies.push(braceDepth);
+        }
+    }
+
+    private void closeBrace() {
+        if (!doBodies.isEmpty() && doBodies.peek() == braceDepth) {
+            doBodies.pop();
+            pendingDoWhiles++;
+        }
+        if (method != null && methodDepth == braceDepth) {
+            method = null;
+        }
+        if (!openDepths.isEmpty() && openDepths.peek() == braceDepth) {
+            openDepths.pop();
+            openTypes.pop();
+        }
+        braceDepth = Math.max(0, braceDepth - 1);
+    }
+
+    // Parses the header starting at the kind keyword and returns the index just past its opening brace
+    private int declaration(int keyword, Kind kind, int modifiers) {
+        int i = keyword + 1;
+        if (tokens.type(i) != JavaLexer.IDENTIFIER) {
+            return i;
+        }
+        TypeDeclaration declaration = new TypeDeclaration(tokens.text(i), kind, modifiers, openTypes.peek(), tokens.line(keyword));
+        declarations.add(declaration);
+        i++;
+        if (tokens.isOperator(i, '<')) {
+            i = typeParameters(i, declaration.bounds);
+        }
+        if (kind == Kind.RECORD && tokens.isOperator(i, '(')) {
+            i = skipBalanced(i, '(', ')');
+        }
+        while (i < tokens.size() && !tokens.isOperator(i, '{') && !tokens.isOperator(i, ';')) {
+            if (tokens.is(i, "extends")) {
+                i = typeList(i + 1, declaration.superTypes);
+            } else if (tokens.is(i, "implements")) {
+                i = typeList(i + 1, declaration.interfaces);
+            } else if (tokens.isOperator(i, '@')) {
+                i = skipAnnotation(i);
+            } else {
+                i++;
+            }
+        }
+        if (tokens.isOperator(i, '{')) {
+            braceDepth++;
+            openTypes.push(declaration);
+            openDepths.push(braceDepth);
+            i++;
+        }
+        return i;
+    }
+
+    // McCabe decision points: each adds one path through the enclosing method
+    private void countDecision(int i) {
+        int type = tokens.type(i);
+        boolean decision = false;
+        if (type == JavaLexer.IDENTIFIER) {
+            if (tokens.is(i, "if") || tokens.is(i, "for") || tokens.is(i, "catch")) {
+                decision = true;
+            } else if (tokens.is(i, "case")) {
+                decision = true;
+                inCaseLabel = true;
+            } else if (tokens.is(i, "do")) {
+                decision = true;
+                if (!tokens.isOperator(i + 1, '{')) {
+                    pendingDoWhiles++;
+                }
+            } else if (tokens.is(i, "while")) {
+                if (pendingDoWhiles > 0) {
+                    pendingDoWhiles--;
+                } else {
+                    decision = true;
+                }
+            }
+        } else if (type == JavaLexer.OPERATOR) {
+            if (tokens.is(i, "&&") || tokens.is(i, "||")) {
+                decision = true;
+            } else if (tokens.is(i, "->")) {
+                decision = !inCaseLabel && !tokens.is(i - 1, "default");
+                inCaseLabel = false;
+            } else if (tokens.isOperator(i, ':')) {
+                inCaseLabel = false;
+            } else if (tokens.isOperator(i, '?')) {
+                // <?>, <? extends T> and Map<K, ?> are wildcards, not conditionals
+                decision = !tokens.isOperator(i - 1, '<') && !tokens.isOperator(i - 1, ',');
+            }
+        }
+        if (decision) {
+            decisionPoints++;
+            if (method != null) {
+                method.complexity++;
+            }
+        }
+    }
+
+    // The method whose body opens at this brace, or null for blocks, initializers, enum constant bodies and anonymous classes
+    private MethodDeclaration methodAt(int brace) {
+        TypeDeclaration owner = openTypes.peek();
+        int previous = brace - 1;
+        // Compact record constructor: Name {
+        if (owner != null && owner.getKind() == Kind.RECORD && tokens.is(previous, owner.getName())) {
+            return new MethodDeclaration(owner.getName(), owner, tokens.line(previous));
+        }
+        int close = previous;
+        if (tokens.type(close) == JavaLexer.IDENTIFIER || tokens.isOperator(close, '>')) {
+            // throws A, b.C<D> {
+            while (close >= 0 && !tokens.is(close, "throws") && (tokens.type(close) == JavaLexer.IDENTIFIER
+                    || tokens.isOperator(close, '.') || tokens.isOperator(close, ',')
+                    || tokens.isOperator(close, '<') || tokens.isOperator(close, '>'))) {
+                close--;
+            }
+            if (!tokens.is(close, "throws")) {
+                return null;
+            }
+            close--;
+        }
+        if (!tokens.isOperator(close, ')')) {
+            return null;
+        }
+        int open = close;
+        int depth = 0;
+        while (open >= 0) {
+            if (tokens.isOperator(open, ')')) {
+                depth++;
+            } else if (tokens.isOperator(open, '(')) {
+                depth--;
+                if (depth == 0) {
+                    break;
+                }
+            }
+            open--;
+        }
+        int name = open - 1;
+        if (tokens.type(name) != JavaLexer.IDENTIFIER || isControlKeyword(name) || isAfterNew(name)) {
+            return null;
+        }
+        // Enum constants with bodies follow '{' or ','; members never follow ','
+        if (tokens.isOperator(name - 1, ',')
+                || (tokens.isOperator(name - 1, '{') && owner != null && owner.getKind() == Kind.ENUM)) {
+            return null;
+        }
+        return new MethodDeclaration(tokens.text(name), owner, tokens.line(name));
+    }
+
+    private boolean isControlKeyword(int i) {
+        return tokens.is(i, "if") || tokens.is(i, "for") || tokens.is(i, "while") || tokens.is(i, "switch")
+                || tokens.is(i, "catch") || tokens.is(i, "synchronized") || tokens.is(i, "try");
+    }
+
+    // new C() { ... } and new pkg.C() { ... } open anonymous class bodies
+    private boolean isAfterNew(int name) {
+        int previous = name - 1;
+        while (tokens.isOperator(previous, '.') && tokens.type(previous - 1) == JavaLexer.IDENTIFIER) {
+            previous -= 2;
+        }
+        return tokens.is(previous, "new");
+    }
+
+    // <T extends A & B, U> - collects A and B
+    private int typeParameters(int open, List<String> bounds) {
+        int depth = 0;
+        int i = open;
+        boolean inBound = false;
+        while (i < tokens.size()) {
+            if (tokens.isOperator(i, '<')) {
+                depth++;
+            } else if (tokens.isOperator(i, '>')) {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            } else if (tokens.isOperator(i, ',') && depth == 1) {
+                inBound = false;
+            } else if (tokens.is(i, "extends")) {
+                inBound = true;
+            } else if (tokens.isOperator(i, '{') || tokens.isOperator(i, ';')) {
+                return i;
+            } else if (inBound && depth == 1 && tokens.type(i) == JavaLexer.IDENTIFIER && !tokens.isOperator(i + 1, '.')) {
+                bounds.add(tokens.text(i));
+            }
+            i++;
+        }
+        return i;
+    }
+
+    // A, pkg.B<C>, Outer.Inner - collects the last segment of each; stops at the next clause or the body
+    private int typeList(int i, List<String> names) {
+        while (i < tokens.size()) {
+            String last = null;
+            while (tokens.type(i) == JavaLexer.IDENTIFIER || tokens.isOperator(i, '@')) {
+                if (tokens.isOperator(i, '@')) {
+                    i = skipAnnotation(i);
+                    continue;
+                }
+                last = tokens.text(i);
+                i++;
+                if (!tokens.isOperator(i, '.')) {
+                    break;
+                }
+                i++;
+            }
+            if (last != null) {
+                names.add(last);
+            }
+            if (tokens.isOperator(i, '<')) {
+                i = skipBalanced(i, '<', '>');
+            }
+            if (!tokens.isOperator(i, ',')) {
+                return i;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    // @Name, @pkg.Name, @Name(...)
+    private int skipAnnotation(int at) {
+        int i = at + 1;
+        while (tokens.type(i) == JavaLexer.IDENTIFIER && !tokens.is(i, "interface")) {
+            i++;
+            if (!tokens.isOperator(i, '.')) {
+                break;
+            }
+            i++;
+        }
+        if (tokens.isOperator(i, '(')) {
+            i = skipBalanced(i, '(', ')');
+        }
+        return i;
+    }
+
+    private int skipBalanced(int open, char opening, char closing) {
+        int depth = 0;
+        int i = open;
+        while (i < tokens.size()) {
+            if (tokens.isOperator(i, opening)) {
+                depth++;
+            } else if (tokens.isOperator(i, closing)) {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private int modifierOf(int i) {
+        if (tokens.is(i, "public")) {
+            return Modifier.PUBLIC;
+        } else if (tokens.is(i, "protected")) {
+            return Modifier.PROTECTED;
+        } else if (tokens.is(i, "private")) {
+            return Modifier.PRIVATE;
+        } else if (tokens.is(i, "abstract")) {
+            return Modifier.ABSTRACT;
+        } else if (tokens.is(i, "static")) {
+            return Modifier.STATIC;
+        } else if (tokens.is(i, "final")) {
+            return Modifier.FINAL;
+        } else if (tokens.is(i, "strictfp")) {
+            return Modifier.STRICT;
+        }
+        return 0;
+    }
+
+    // class (not X.class), interface, enum, and record when followed by a name and a header
+    private Kind kindOf(int i) {
+        if (tokens.isOperator(i - 1, '.')) {
+            return null;
+        }
+        if (tokens.is(i, "class")) {
+            return Kind.CLASS;
+        }
+        if (tokens.is(i, "interface")) {
+            return Kind.INTERFACE;
+        }
+        if (tokens.is(i, "enum") && tokens.type(i + 1) == JavaLexer.IDENTIFIER) {
+            return Kind.ENUM;
+        }
+        if (tokens.is(i, "record") && tokens.type(i + 1) == JavaLexer.IDENTIFIER
+                && (tokens.isOperator(i + 2, '(') || tokens.isOperator(i + 2, '<'))) {
+            return Kind.RECORD;
+        }
+        return null;
+    }
+}
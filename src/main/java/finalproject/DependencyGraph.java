@@ -0,0 +1,270 @@
+package finalproject;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ROLE: Data.
+ * Class dependency graph in compressed-sparse-row form: one node per analyzed file, one int target and one kind byte per edge.
+ * Built from ParsedSource relations after analysis, resolving names through a SymbolIndex; DIA metrics and UmlBuilder read it.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class DependencyGraph {
+
+    // Edge kind bits; one edge can carry several when a class relates to another in more than one way
+    public static final byte DEPENDENCY = 1;
+    public static final byte ASSOCIATION = 1 << 1;
+    public static final byte AGGREGATION = 1 << 2;
+    public static final byte COMPOSITION = 1 << 3;
+    public static final byte EXTENDS = 1 << 4;
+    public static final byte IMPLEMENTS = 1 << 5;
+
+    private final List<ParsedSource> sources;
+    private final SymbolIndex symbols;
+    private final Map<String, Integer> nodeByPath;
+    // Edges of node n are offsets[n] .. offsets[n + 1] - 1, sorted by target
+    private final int[] offsets;
+    private final int[] targets;
+    private final byte[] kinds;
+    // The same edges transposed: nodes pointing at n are incomingSources[incomingOffsets[n] .. incomingOffsets[n + 1] - 1]
+    private final int[] incomingOffsets;
+    private final int[] incomingSources;
+
+    private DependencyGraph(List<ParsedSource> sources, SymbolIndex symbols, int[] offsets, int[] targets, byte[] kinds) {
+        this.sources = sources;
+        this.symbols = symbols;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.kinds = kinds;
+        this.nodeByPath = new HashMap<>(sources.size() * 2);
+        for (int node = 0; node < sources.size(); node++) {
+            nodeByPath.put(sources.get(node).path, node);
+        }
+        // Counting sort by target; sources come out ascending because rows are visited in node order
+        this.incomingOffsets = new int[sources.size() + 1];
+        for (int target : targets) {
+            incomingOffsets[target + 1]++;
+        }
+        for (int node = 0; node < sources.size(); node++) {
+            incomingOffsets[node + 1] += incomingOffsets[node];
+        }
+        this.incomingSources = new int[targets.length];
+        int[] next = Arrays.copyOf(incomingOffsets, sources.size());
+        for (int node = 0; node < sources.size(); node++) {
+            for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+                incomingSources[next[targets[edge]]++] = node;
+            }
+        }
+    }
+
+    // Node n is files.get(n); a qualified name shared by several files resolves to the last of them
+    public static DependencyGraph build(List<ParsedSource> files) {
+        return build(files, null, Collections.emptySet());
+    }
+
+    // Graph for a reload: only rows that can differ are resolved again, namely re-analyzed files and files that may name a
+    // touched file's class (that name may now resolve elsewhere); every other row is copied from the previous graph, renumbered
+    public static DependencyGraph update(DependencyGraph before, List<ParsedSource> files, Collection<String> touchedPaths) {
+        Set<String> touchedNames = new HashSet<>();
+        for (String path : touchedPaths) {
+            touchedNames.add(ParsedSource.extractClassName(path));
+        }
+        return build(files, before, touchedNames);
+    }
+
+    private static DependencyGraph build(List<ParsedSource> files, DependencyGraph before, Set<String> touchedNames) {
+        int nodeCount = files.size();
+        SymbolIndex symbols = new SymbolIndex(files);
+        int[] renumbered = before == null ? new int[0] : renumbering(before, files);
+
+        int[] offsets = new int[nodeCount + 1];
+        int[] targets = new int[Math.max(16, nodeCount * 4)];
+        byte[] kinds = new byte[targets.length];
+        // Per-target scratch reused for every node: which node last touched it, and the kinds gathered so far
+        int[] seenBy = new int[nodeCount];
+        Arrays.fill(seenBy, -1);
+        byte[] pending = new byte[nodeCount];
+        int[] nodeTargets = new int[Math.max(16, nodeCount)];
+        int edgeCount = 0;
+
+        for (int node = 0; node < nodeCount; node++) {
+            ParsedSource file = files.get(node);
+            int reused = before == null ? -1 : reusableRow(before, file, touchedNames, renumbered);
+            if (reused >= 0) {
+                int count = before.getOutDegree(reused);
+                if (edgeCount + count > targets.length) {
+                    int capacity = Math.max(targets.length * 2, edgeCount + count);
+                    targets = Arrays.copyOf(targets, capacity);
+                    kinds = Arrays.copyOf(kinds, capacity);
+                }
+                for (int edge = before.offsets[reused]; edge < before.offsets[reused + 1]; edge++) {
+                    targets[edgeCount] = renumbered[before.targets[edge]];
+                    kinds[edgeCount] = before.kinds[edge];
+                    edgeCount++;
+                }
+                offsets[node + 1] = edgeCount;
+                continue;
+            }
+            // A reference to the file's own qualified name is never an edge, even when a same-named file won the index
+            int self = symbols.nodeOf(file.qualifiedName);
+            int count = 0;
+            count = collect(file, file.implementedInterfaces, IMPLEMENTS, symbols, self, node, seenBy, pending, nodeTargets, count);
+            if (file.parentClass != null) {
+                count = collect(file, Collections.singleton(file.parentClass), EXTENDS, symbols, self, node, seenBy, pending, nodeTargets, count);
+            }
+            count = collect(file, file.compositions, COMPOSITION, symbols, self, node, seenBy, pending, nodeTargets, count);
+            count = collect(file, file.aggregations, AGGREGATION, symbols, self, node, seenBy, pending, nodeTargets, count);
+            count = collect(file, file.associations, ASSOCIATION, symbols, self, node, seenBy, pending, nodeTargets, count);
+            count = collect(file, file.dependencies, DEPENDENCY, symbols, self, node, seenBy, pending, nodeTargets, count);
+            Arrays.sort(nodeTargets, 0, count);
+
+            if (edgeCount + count > targets.length) {
+                int capacity = Math.max(targets.length * 2, edgeCount + count);
+                targets = Arrays.copyOf(targets, capacity);
+                kinds = Arrays.copyOf(kinds, capacity);
+            }
+            for (int i = 0; i < count; i++) {
+                int target = nodeTargets[i];
+                targets[edgeCount] = target;
+                kinds[edgeCount] = pending[target];
+                edgeCount++;
+            }
+            offsets[node + 1] = edgeCount;
+        }
+        return new DependencyGraph(files, symbols, offsets, Arrays.copyOf(targets, edgeCount), Arrays.copyOf(kinds, edgeCount));
+    }
+
+    // Previous graph's node -> node in the new file list, or -1 when the file is gone
+    private static int[] renumbering(DependencyGraph before, List<ParsedSource> files) {
+        int[] renumbered = new int[before.getNodeCount()];
+        Arrays.fill(renumbered, -1);
+        for (int node = 0; node < files.size(); node++) {
+            int old = before.nodeOfPath(files.get(node).path);
+            if (old >= 0) {
+                renumbered[old] = node;
+            }
+        }
+        return renumbered;
+    }
+
+    // Old node whose row still holds for this file, or -1 to resolve it again; copied targets must stay present and sorted
+    private static int reusableRow(DependencyGraph before, ParsedSource file, Set<String> touchedNames, int[] renumbered) {
+        int old = before.nodeOfPath(file.path);
+        if (old < 0 || before.getSource(old) != file) {
+            return -1;
+        }
+        for (String name : touchedNames) {
+            if (file.mightMention(name)) {
+                return -1;
+            }
+        }
+        int previous = -1;
+        for (int edge = before.offsets[old]; edge < before.offsets[old + 1]; edge++) {
+            int target = renumbered[before.targets[edge]];
+            if (target <= previous) {
+                return -1;
+            }
+            previous = target;
+        }
+        return old;
+    }
+
+    private static int collect(ParsedSource file, Set<String> names, byte kind, SymbolIndex symbols, int self, int node,
+                               int[] seenBy, byte[] pending, int[] nodeTargets, int count) {
+        for (String name : names) {
+            int target = symbols.resolve(file, name);
+            if (target == SymbolIndex.UNRESOLVED || target == self) {
+                continue;
+            }
+            if (seenBy[target] != node) {
+                seenBy[target] = node;
+                pending[target] = 0;
+                nodeTargets[count++] = target;
+            }
+            pending[target] |= kind;
+        }
+        return count;
+    }
+
+    public int getNodeCount() {
+        return sources.size();
+    }
+
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    public ParsedSource getSource(int node) {
+        return sources.get(node);
+    }
+
+    // Package-qualified class name of the node
+    public String getName(int node) {
+        return sources.get(node).qualifiedName;
+    }
+
+    // Node that a qualified name resolves to, or -1 when the class is not in the graph
+    public int nodeOf(String qualifiedName) {
+        return symbols.nodeOf(qualifiedName);
+    }
+
+    // Node of the file at this path, or -1
+    public int nodeOfPath(String path) {
+        Integer node = nodeByPath.get(path);
+        return node == null ? -1 : node;
+    }
+
+    public String getPath(int node) {
+        return sources.get(node).path;
+    }
+
+    public int getEdgeStart(int node) {
+        return offsets[node];
+    }
+
+    public int getEdgeEnd(int node) {
+        return offsets[node + 1];
+    }
+
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    public byte getKinds(int edge) {
+        return kinds[edge];
+    }
+
+    public int getOutDegree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    public int getInDegree(int node) {
+        return incomingOffsets[node + 1] - incomingOffsets[node];
+    }
+
+    public int getIncomingStart(int node) {
+        return incomingOffsets[node];
+    }
+
+    public int getIncomingEnd(int node) {
+        return incomingOffsets[node + 1];
+    }
+
+    public int getIncomingSource(int index) {
+        return incomingSources[index];
+    }
+
+    // Highest-precedence kind of an edge: implements, extends, composition, aggregation, association, dependency
+    public static byte strongestKind(byte kinds) {
+        return (byte) Integer.highestOneBit(kinds & 0xFF);
+    }
+}
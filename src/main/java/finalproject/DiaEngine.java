@@ -0,0 +1,137 @@
+package finalproject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ROLE: Service.
+ * Keeps DIA metrics (abstractness, instability, distance) per file and updates them from a GraphDelta instead of the whole graph.
+ * Built once from a DependencyGraph after a full analysis; a reload applies its delta and publishes only the files whose metrics changed.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class DiaEngine {
+
+    /**
+     * Coupling counts and current metrics of one file.
+     */
+    private static final class Node {
+        private ParsedSource source;
+        private int incoming;
+        private int outgoing;
+        private DiaMetricsData metrics;
+
+        private Node(ParsedSource source) {
+            this.source = source;
+        }
+    }
+
+    private final Map<String, Node> nodesByPath = new HashMap<>();
+
+    // In-degrees and out-degrees straight from the CSR rows
+    public DiaEngine(DependencyGraph graph) {
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            Node state = new Node(graph.getSource(node));
+            state.incoming = graph.getInDegree(node);
+            state.outgoing = graph.getOutDegree(node);
+            state.metrics = toMetrics(state);
+            nodesByPath.put(graph.getPath(node), state);
+        }
+    }
+
+    // Applies removed edges, removed classes, added classes, then added edges; returns the paths whose metrics or package
+    // changed, or that vanished
+    public Set<String> apply(GraphDelta delta) {
+        Set<String> touched = new HashSet<>();
+        for (GraphDelta.Edge edge : delta.getRemovedEdges()) {
+            adjust(edge, -1, touched);
+        }
+        Set<String> changed = new HashSet<>();
+        for (String path : delta.getRemovedClasses()) {
+            if (nodesByPath.remove(path) != null) {
+                changed.add(path);
+            }
+            touched.remove(path);
+        }
+        for (ParsedSource source : delta.getAddedClasses()) {
+            Node node = nodesByPath.get(source.path);
+            if (node == null) {
+                nodesByPath.put(source.path, new Node(source));
+            } else {
+                if (!node.source.packageName.equals(source.packageName)) {
+                    // Same file metrics, but it now counts toward another package
+                    changed.add(source.path);
+                }
+                node.source = source;
+            }
+            touched.add(source.path);
+        }
+        for (GraphDelta.Edge edge : delta.getAddedEdges()) {
+            adjust(edge, 1, touched);
+        }
+
+        for (String path : touched) {
+            Node node = nodesByPath.get(path);
+            if (node == null) {
+                continue;
+            }
+            DiaMetricsData updated = toMetrics(node);
+            if (node.metrics == null || !sameMetrics(node.metrics, updated)) {
+                node.metrics = updated;
+                changed.add(path);
+            }
+        }
+        return changed;
+    }
+
+    public DiaMetricsData metricsOf(String path) {
+        Node node = nodesByPath.get(path);
+        return node == null ? null : node.metrics;
+    }
+
+    // Metrics in the graph's node order; the graph must hold the same files the engine does
+    public List<DiaMetricsData> metricsFor(DependencyGraph graph) {
+        List<DiaMetricsData> metrics = new ArrayList<>(graph.getNodeCount());
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            metrics.add(metricsOf(graph.getPath(node)));
+        }
+        return metrics;
+    }
+
+    public int size() {
+        return nodesByPath.size();
+    }
+
+    private void adjust(GraphDelta.Edge edge, int step, Set<String> touched) {
+        Node from = nodesByPath.get(edge.getFrom());
+        if (from != null) {
+            from.outgoing += step;
+            touched.add(edge.getFrom());
+        }
+        Node to = nodesByPath.get(edge.getTo());
+        if (to != null) {
+            to.incoming += step;
+            touched.add(edge.getTo());
+        }
+    }
+
+    private static DiaMetricsData toMetrics(Node node) {
+        ParsedSource file = node.source;
+        double abstractness = (file.isAbstract || file.isInterface) ? 1.0 : 0.0;
+        double denominator = node.incoming + node.outgoing;
+        double instability = denominator == 0 ? 0.0 : (double) node.outgoing / denominator;
+        double distance = Math.abs(abstractness + instability - 1.0);
+        return new DiaMetricsData(file.path, abstractness, instability, distance, node.incoming, node.outgoing);
+    }
+
+    private static boolean sameMetrics(DiaMetricsData a, DiaMetricsData b) {
+        return a.getIncoming() == b.getIncoming() && a.getOutgoing() == b.getOutgoing()
+                && a.getAbstractness() == b.getAbstractness();
+    }
+}
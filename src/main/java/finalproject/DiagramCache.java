@@ -0,0 +1,100 @@
+package finalproject;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ROLE: Data/Service.
+ * Two-level cache of rendered UML diagrams keyed by a SHA-256 of the PlantUML text and output format.
+ * DiagramTab checks it before rendering: decoded images stay in a small soft-referenced LRU, encoded images in a size-capped DiskCache.
+ * The disk level lives in the per-user cache folder from DiskCache.cacheRoot, so `mvn clean` does not empty it.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class DiagramCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DiagramCache.class);
+
+    public static final String DIRECTORY_NAME = "diagrams";
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    public static final int DEFAULT_MEMORY_ENTRIES = 8;
+
+    // Null when only the memory level is available
+    private final DiskCache store;
+    private final int memoryEntries;
+    // Soft references let the GC drop large images under memory pressure before the LRU bound does
+    private final LinkedHashMap<String, SoftReference<BufferedImage>> memory;
+
+    public DiagramCache(DiskCache store, int memoryEntries) {
+        this.store = store;
+        this.memoryEntries = memoryEntries;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SoftReference<BufferedImage>> eldest) {
+                return size() > DiagramCache.this.memoryEntries;
+            }
+        };
+    }
+
+    public static DiagramCache open(Path directory, long maxBytes) throws IOException {
+        return new DiagramCache(new DiskCache(directory, maxBytes), DEFAULT_MEMORY_ENTRIES);
+    }
+
+    // The format is part of the key so a PNG and an SVG of the same text never collide
+    public static String key(String plantUmlText, String format) {
+        return SourceCache.sha256(format + '\n' + plantUmlText);
+    }
+
+    // Memory first, then disk (decoded and promoted to memory); null on a miss
+    public BufferedImage get(String key) {
+        synchronized (memory) {
+            SoftReference<BufferedImage> cached = memory.get(key);
+            BufferedImage image = cached == null ? null : cached.get();
+            if (image != null) {
+                return image;
+            }
+        }
+        if (store == null) {
+            return null;
+        }
+        // Decoded straight from the mapped file, buffering in memory rather than through ImageIO's temp-file cache;
+        // ImageIO.read closes the stream itself
+        BufferedImage image = store.read(key,
+                mapped -> ImageIO.read(new MemoryCacheImageInputStream(new ByteBufferBackedInputStream(mapped))));
+        if (image != null) {
+            remember(key, image);
+        }
+        return image;
+    }
+
+    // encoded is the renderer's output, kept on disk; image is its decoded form, kept in memory
+    public void put(String key, byte[] encoded, BufferedImage image) {
+        remember(key, image);
+        if (store == null) {
+            return;
+        }
+        try {
+            store.write(key, encoded);
+        } catch (IOException ex) {
+            LOG.warn("Unable to store rendered diagram {}", key, ex);
+        }
+    }
+
+    private void remember(String key, BufferedImage image) {
+        synchronized (memory) {
+            memory.put(key, new SoftReference<>(image));
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package finalproject;
 
 import java.awt.BorderLayout;
-import java.awt.Image;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.SwingUtilities;
 
@@ -16,55 +22,137 @@ import org.slf4j.LoggerFactory;
 /**
  * ROLE: View.
  * Renders the UML diagram from PlantUML text provided by the analysis.
- * Subscribes to Blackboard UML updates and scales the image into the panel.
+ * Subscribes to Blackboard UML updates and renders and scales on a background thread; only the finished image is swapped in on the EDT.
+ * Rendered images go through a DiagramCache, so an unchanged diagram is shown again without running PlantUML.
+ * PlantUML ignores interrupts, so a superseded render cannot be stopped: it runs to the end on its own thread and its
+ * result is dropped, while the newer diagram starts rendering at once on a fresh thread instead of queueing behind it.
  *
- * @version 1.5
+ * @version 2.0
  * @author Parker Jones
  * @author Ashley Aring
  */
 public class DiagramTab extends JPanel {
 
     private static final Logger LOG = LoggerFactory.getLogger(DiagramTab.class);
+    private static final String EMPTY_MESSAGE = "Run analysis to see UML diagram.";
+    // SourceStringReader.outputImage(OutputStream) writes PNG
+    private static final String FORMAT = "png";
 
     private final Blackboard blackboard = Blackboard.getInstance();
     private final JLabel imageLabel;
+    private final JProgressBar progressBar;
+    // EDT only: the render in flight, and a counter that lets a finished render tell whether it was superseded
+    private Thread rendering;
+    private int generation;
+    // Read on the renderer thread; null renders every diagram from scratch
+    private volatile DiagramCache diagramCache;
 
     public DiagramTab() {
         super(new BorderLayout());
-        imageLabel = new JLabel("Run analysis to see UML diagram.", JLabel.CENTER);
+        imageLabel = new JLabel(EMPTY_MESSAGE, JLabel.CENTER);
         imageLabel.setVerticalAlignment(JLabel.CENTER);
 
+        // PlantUML reports no progress, so the bar is indeterminate and names what is being drawn
+        progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setStringPainted(true);
+        progressBar.setVisible(false);
+
         JScrollPane scrollPane = new JScrollPane(imageLabel);
+        add(progressBar, BorderLayout.NORTH);
         add(scrollPane, BorderLayout.CENTER);
 
         blackboard.addUmlListener(this::refreshDiagram);
         refreshDiagram();
     }
 
+    public void setDiagramCache(DiagramCache diagramCache) {
+        this.diagramCache = diagramCache;
+    }
+
+    // A newer diagram interrupts the render in flight and starts its own on a fresh thread straight away
     private void refreshDiagram() {
         SwingUtilities.invokeLater(() -> {
             UmlDiagramData uml = blackboard.getUmlDiagram();
+            int current = ++generation;
+            if (rendering != null) {
+                rendering.interrupt();
+                rendering = null;
+            }
             if (uml == null || uml.getPlantUmlText() == null || uml.getPlantUmlText().isBlank()) {
-                imageLabel.setIcon(null);
-                imageLabel.setText("Run analysis to see UML diagram.");
+                show(current, null, EMPTY_MESSAGE);
                 return;
             }
-            try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-                SourceStringReader reader = new SourceStringReader(uml.getPlantUmlText());
-                reader.outputImage(out);
-                ImageIcon rawIcon = new ImageIcon(out.toByteArray());
-                int targetWidth = imageLabel.getWidth();
-                Image displayImage = targetWidth > 0
-                        ? rawIcon.getImage().getScaledInstance(targetWidth, -1, Image.SCALE_SMOOTH)
-                        : rawIcon.getImage();
-                imageLabel.setIcon(new ImageIcon(displayImage));
-                imageLabel.setText(null);
-                LOG.info("Rendered UML diagram successfully.");
-            } catch (Exception ex) {
-                LOG.error("Unable to render UML diagram", ex);
-                imageLabel.setIcon(null);
-                imageLabel.setText("Unable to render UML: " + ex.getMessage());
-            }
+            progressBar.setString("Rendering UML diagram (" + uml.getRelationCount() + " relations)...");
+            progressBar.setVisible(true);
+            imageLabel.setIcon(null);
+            imageLabel.setText("Rendering UML diagram...");
+            int targetWidth = imageLabel.getWidth();
+            rendering = Thread.ofPlatform().name("DiagramRenderer-" + current).daemon()
+                    .start(() -> render(uml, targetWidth, current));
         });
     }
+
+    // Renderer thread: PlantUML, decoding, and scaling all happen here. The interrupt checks only skip the steps after
+    // PlantUML returns, so a superseded render still finishes its outputImage call before its thread ends.
+    private void render(UmlDiagramData uml, int targetWidth, int renderGeneration) {
+        long started = System.nanoTime();
+        try {
+            DiagramCache cache = diagramCache;
+            String key = cache == null ? null : DiagramCache.key(uml.getPlantUmlText(), FORMAT);
+            BufferedImage image = cache == null ? null : cache.get(key);
+            boolean cached = image != null;
+            if (!cached) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                new SourceStringReader(uml.getPlantUmlText()).outputImage(out);
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                byte[] encoded = out.toByteArray();
+                image = ImageIO.read(new ByteArrayInputStream(encoded));
+                if (image == null) {
+                    throw new IOException("PlantUML produced no image");
+                }
+                if (cache != null) {
+                    cache.put(key, encoded, image);
+                }
+            }
+            BufferedImage displayImage = targetWidth > 0 ? scale(image, targetWidth) : image;
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            ImageIcon icon = new ImageIcon(displayImage);
+            SwingUtilities.invokeLater(() -> show(renderGeneration, icon, null));
+            LOG.info("{} UML diagram in {} ms.", cached ? "Loaded cached" : "Rendered", (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception ex) {
+            if (Thread.currentThread().isInterrupted()) {
+                LOG.info("Cancelled superseded UML render");
+                return;
+            }
+            LOG.error("Unable to render UML diagram", ex);
+            SwingUtilities.invokeLater(() -> show(renderGeneration, null, "Unable to render UML: " + ex.getMessage()));
+        }
+    }
+
+    // EDT: a result from a superseded render is dropped
+    private void show(int renderGeneration, ImageIcon icon, String message) {
+        if (renderGeneration != generation) {
+            return;
+        }
+        rendering = null;
+        progressBar.setVisible(false);
+        imageLabel.setIcon(icon);
+        imageLabel.setText(message);
+    }
+
+    // Scales eagerly; a lazily scaled Image would do the work while painting on the EDT
+    private static BufferedImage scale(BufferedImage image, int targetWidth) {
+        int targetHeight = Math.max(1, (int) Math.round((double) image.getHeight() * targetWidth / image.getWidth()));
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = scaled.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g2.drawImage(image, 0, 0, targetWidth, targetHeight, null);
+        g2.dispose();
+        return scaled;
+    }
 }
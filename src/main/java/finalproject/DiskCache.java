@@ -0,0 +1,243 @@
+package finalproject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ROLE: Data/Service.
+ * Size-bounded on-disk key/value store with least-recently-used eviction; reads decode straight from a memory mapping.
+ * Keys must be file-name safe (callers pass hex digests); recency is tracked in memory and written to file modification
+ * times at most every 30 seconds, so it survives restarts without a metadata write per hit.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class DiskCache {
+
+    // Per-user folder every cache lives under unless CACHE_DIR says otherwise
+    public static final String APP_DIRECTORY = "final-project-csc305";
+
+    private static final Logger LOG = LoggerFactory.getLogger(DiskCache.class);
+    private static final long RECENCY_FLUSH_MILLIS = 30_000;
+
+    private final Path directory;
+    private final long maxBytes;
+    // key -> entry size, iterated from least to most recently used
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    // key -> reads in progress; an evicted key with readers is deleted by a later write instead
+    private final Map<String, Integer> readers = new HashMap<>();
+    // Evicted keys whose file is still being read, or could not be deleted yet (Windows refuses while a mapping is live)
+    private final Set<String> pendingDeletes = new LinkedHashSet<>();
+    // Keys read since recency was last written to modification times
+    private final Set<String> recentlyRead = new HashSet<>();
+    private long lastFlushMillis = System.currentTimeMillis();
+
+    public DiskCache(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+        loadIndex();
+    }
+
+    // CACHE_DIR when set, else $XDG_CACHE_HOME, %LOCALAPPDATA% or ~/.cache; outside the build tree so `mvn clean` keeps it
+    public static Path cacheRoot(String configured) {
+        if (configured != null && !configured.isBlank()) {
+            return Path.of(configured.trim());
+        }
+        String xdg = System.getenv("XDG_CACHE_HOME");
+        if (xdg != null && !xdg.isBlank()) {
+            return Path.of(xdg, APP_DIRECTORY);
+        }
+        String localAppData = System.getenv("LOCALAPPDATA");
+        if (localAppData != null && !localAppData.isBlank()) {
+            return Path.of(localAppData, APP_DIRECTORY, "cache");
+        }
+        return Path.of(System.getProperty("user.home"), ".cache", APP_DIRECTORY);
+    }
+
+    // Turns an entry's bytes into the caller's value; the buffer maps the file and is only valid during the call
+    public interface Decoder<T> {
+        T decode(ByteBuffer mapped) throws IOException;
+    }
+
+    // Decodes the entry straight from a read-only mapping, or returns null when it is not cached.
+    // The key counts as being read until the decoder returns, so eviction defers deleting the file until then.
+    public <T> T read(String key, Decoder<T> decoder) {
+        synchronized (this) {
+            if (entries.get(key) == null) {
+                return null;
+            }
+            readers.merge(key, 1, Integer::sum);
+            recentlyRead.add(key);
+        }
+        Path file = fileFor(key);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return decoder.decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (NoSuchFileException ex) {
+            remove(key);
+            return null;
+        } catch (IOException | RuntimeException ex) {
+            LOG.warn("Dropping unreadable cache entry {}", file, ex);
+            remove(key);
+            return null;
+        } finally {
+            synchronized (this) {
+                readers.computeIfPresent(key, (reading, count) -> count == 1 ? null : count - 1);
+            }
+            flushRecency();
+        }
+    }
+
+    public void write(String key, byte[] data) throws IOException {
+        Path file = fileFor(key);
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), key, ".tmp");
+        try {
+            Files.write(temp, data);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            pendingDeletes.remove(key);
+            Long previous = entries.put(key, (long) data.length);
+            totalBytes += data.length - (previous == null ? 0 : previous);
+            Iterator<Map.Entry<String, Long>> oldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && oldest.hasNext()) {
+                Map.Entry<String, Long> entry = oldest.next();
+                if (entry.getKey().equals(key)) {
+                    continue;
+                }
+                totalBytes -= entry.getValue();
+                pendingDeletes.add(entry.getKey());
+                oldest.remove();
+            }
+            // Removed from the index above, so no new read can start on these; only finished ones are deleted now
+            for (Iterator<String> pending = pendingDeletes.iterator(); pending.hasNext(); ) {
+                String stale = pending.next();
+                if (!readers.containsKey(stale)) {
+                    evicted.add(stale);
+                    pending.remove();
+                }
+            }
+        }
+        for (String stale : evicted) {
+            try {
+                Files.deleteIfExists(fileFor(stale));
+            } catch (IOException ex) {
+                LOG.debug("Deferring deletion of evicted cache entry {}", stale, ex);
+                synchronized (this) {
+                    if (!entries.containsKey(stale)) {
+                        pendingDeletes.add(stale);
+                    }
+                }
+            }
+        }
+        if (!evicted.isEmpty()) {
+            LOG.debug("Evicted {} entries from {}", evicted.size(), directory);
+        }
+        flushRecency();
+    }
+
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    // At most every RECENCY_FLUSH_MILLIS, stamps the entries read since the last flush in least-to-most recent order,
+    // so loadIndex() rebuilds the same order after a restart without a metadata write on every hit
+    private void flushRecency() {
+        List<String> keys = new ArrayList<>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (recentlyRead.isEmpty() || now - lastFlushMillis < RECENCY_FLUSH_MILLIS) {
+                return;
+            }
+            lastFlushMillis = now;
+            for (String key : entries.keySet()) {
+                if (recentlyRead.contains(key)) {
+                    keys.add(key);
+                }
+            }
+            recentlyRead.clear();
+        }
+        long stamp = System.currentTimeMillis() - keys.size();
+        for (String key : keys) {
+            try {
+                Files.setLastModifiedTime(fileFor(key), FileTime.fromMillis(stamp++));
+            } catch (IOException ex) {
+                LOG.debug("Unable to record recency of cache entry {}", key, ex);
+            }
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (this) {
+            Long size = entries.remove(key);
+            if (size != null) {
+                totalBytes -= size;
+            }
+        }
+        try {
+            Files.deleteIfExists(fileFor(key));
+        } catch (IOException ex) {
+            LOG.warn("Unable to delete cache entry {}", key, ex);
+        }
+    }
+
+    // Shard by the first two characters so no single directory grows huge
+    private Path fileFor(String key) {
+        String shard = key.length() >= 2 ? key.substring(0, 2) : "_";
+        return directory.resolve(shard).resolve(key);
+    }
+
+    private void loadIndex() throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(directory, 2)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(path -> !path.getFileName().toString().endsWith(".tmp"))
+                    .sorted((a, b) -> lastModified(a).compareTo(lastModified(b)))
+                    .toList();
+        }
+        for (Path file : files) {
+            long size = Files.size(file);
+            entries.put(file.getFileName().toString(), size);
+            totalBytes += size;
+        }
+        LOG.info("Opened cache {} with {} entries ({} bytes)", directory, entries.size(), totalBytes);
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException ex) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
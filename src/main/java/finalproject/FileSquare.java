@@ -12,8 +12,9 @@ import javax.swing.JPanel;
 
 /**
  * ROLE: View.
- * Represents a single file in the grid with color/opacity based on complexity and size.
- * Displays stats in a tooltip and updates Blackboard selection on click.
+ * Represents a single file in the grid with color from its most complex method and opacity from its size.
+ * Displays stats in a tooltip, marks files in a dependency cycle, and updates Blackboard selection on click.
+ * While another file is selected, its border shows whether this file is among that file's transitive dependencies or dependents.
  *
  * @author Parker Jones
  * @author Ashley Aring
@@ -24,13 +25,18 @@ public class FileSquare extends JPanel {
     private static final Color GREEN = new Color(0, 153, 0);
     private static final Color YELLOW = new Color(255, 204, 0);
     private static final Color RED = new Color(204, 0, 0);
+    private static final Color CYCLE = new Color(0x8E24AA);
+    private static final Color DEPENDENCY = new Color(0x1565C0);
+    private static final Color DEPENDENT = new Color(0xEF6C00);
 
     private final Blackboard blackboard = Blackboard.getInstance();
     private final GridFileData fileStats;
     private final Color displayColor;
+    private final CycleGroupData cycleGroup;
 
     public FileSquare(GridFileData fileStats, int maxLineCount) {
         this.fileStats = fileStats;
+        this.cycleGroup = blackboard.getCycleGroupOf(fileStats.getName());
         setPreferredSize(new Dimension(60, 60));
         setToolTipText(buildTooltip());
         setOpaque(false);
@@ -49,15 +55,24 @@ public class FileSquare extends JPanel {
     }
 
     private String buildTooltip() {
-        return fileStats.getName() + " | Lines: " + fileStats.getLineCount()
+        GridFileData.MethodComplexity worst = fileStats.getWorstMethod();
+        String tooltip = fileStats.getName() + " | Lines: " + fileStats.getLineCount()
                 + " | Complexity: " + fileStats.getComplexity();
+        if (worst != null) {
+            tooltip += " | Worst method: " + worst.getName() + " (" + worst.getComplexity() + ")";
+        }
+        if (cycleGroup != null) {
+            tooltip += " | Cycle #" + cycleGroup.getId() + " (" + cycleGroup.getSize() + " classes)";
+        }
+        return tooltip;
     }
 
+    // McCabe's usual per-method thresholds: above 10 is red, above 5 is yellow
     private Color buildColor(GridFileData stats, int maxLineCount) {
         Color base;
-        if (stats.getComplexity() > 10) {
+        if (stats.getMaxMethodComplexity() > 10) {
             base = RED;
-        } else if (stats.getComplexity() > 5) {
+        } else if (stats.getMaxMethodComplexity() > 5) {
             base = YELLOW;
         } else {
             base = GREEN;
@@ -74,10 +89,14 @@ public class FileSquare extends JPanel {
         return new Color(base.getRed(), base.getGreen(), base.getBlue(), alpha);
     }
 
-    // For hover
+    // For hover, and for the selection's transitive dependencies (blue) and dependents (orange)
     private void updateSelectionBorder() {
         if (blackboard.getSelectedFile() == fileStats) {
             setBorder(BorderFactory.createStrokeBorder(new BasicStroke(3f), Color.BLACK));
+        } else if (blackboard.isDependencyOfSelection(fileStats.getName())) {
+            setBorder(BorderFactory.createStrokeBorder(new BasicStroke(3f), DEPENDENCY));
+        } else if (blackboard.isDependentOfSelection(fileStats.getName())) {
+            setBorder(BorderFactory.createStrokeBorder(new BasicStroke(3f), DEPENDENT));
         } else {
             setBorder(BorderFactory.createLineBorder(Color.DARK_GRAY));
         }
@@ -90,6 +109,12 @@ public class FileSquare extends JPanel {
         Graphics2D g2 = (Graphics2D) g.create();
         g2.setColor(displayColor);
         g2.fillRect(0, 0, getWidth(), getHeight());
+        // Corner flag for files in a dependency cycle, clear of the selection border
+        if (cycleGroup != null) {
+            int size = Math.min(getWidth(), getHeight()) / 3;
+            g2.setColor(CYCLE);
+            g2.fillPolygon(new int[]{getWidth() - size, getWidth(), getWidth()}, new int[]{0, 0, size}, 3);
+        }
         g2.dispose();
     }
 }
@@ -6,103 +6,348 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
 
 import javax.swing.Timer;
 import javax.swing.SwingUtilities;
 
-import javiergs.tulip.GitHubHandler;
-import javiergs.tulip.URLHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * ROLE: Data/Service.
- * Background worker that fetches a GitHub folder, extracts metrics, and builds UML text.
- * Uses GitHubHandler to download sources, produces data objects, and publishes them to the Blackboard/BottomBar.
+ * Background worker that fetches sources from a SourceProvider, extracts metrics, and builds UML text.
+ * Streams each source through SourceAnalyzer as it arrives, then runs the global DIA/UML steps and publishes to the Blackboard/BottomBar.
  *
  * @version 3.5
  * @author Parker Jones
  * @author Ashley Aring
  */
-public class GitFetch implements Runnable {
+public class GitFetch implements AnalysisScheduler.Task {
 
-    private static final Pattern COMPLEXITY_PATTERN = Pattern.compile("\\b(if|switch|for|while)\\b");
-    private static final Pattern CLASS_NAME_PATTERN = Pattern.compile("\\b([A-Z][A-Za-z0-9_]*)\\b");
-    private static final Pattern EXTENDS_PATTERN = Pattern.compile("\\bclass\\s+%s\\s+extends\\s+([A-Z][A-Za-z0-9_]*)");
-    private static final Pattern IMPLEMENTS_PATTERN = Pattern.compile("\\bclass\\s+%s\\s+implements\\s+([A-Za-z0-9_,\\s]+)");
     private static final Logger LOG = LoggerFactory.getLogger(GitFetch.class);
 
+    private final SourceProvider provider;
     private final String url;
-    private final GitHubHandler gitHubHandler;
     private final Blackboard blackboard;
     private final BottomBar bottomBar;
+    private final SourceDownloader downloader;
+
+    private AnalysisJob job;
+    private AnalysisSnapshot baseline;
+    private Consumer<AnalysisSnapshot> onComplete;
+    private int failedDownloads;
+    private String reloadSummary;
+    // Files whose DIA metrics changed on reload; null after a full analysis (everything is new)
+    private Set<String> changedMetrics;
+
+    public GitFetch(SourceProvider provider, Blackboard blackboard, BottomBar bottomBar) {
+        this(provider, blackboard, bottomBar, SourceDownloader.DEFAULT_CONCURRENCY);
+    }
+
+    // Headless fetch for batch runs: analyze() returns the snapshot and nothing touches Swing
+    public GitFetch(SourceProvider provider, int downloadConcurrency) {
+        this(provider, null, null, downloadConcurrency);
+    }
 
-    public GitFetch(String url, GitHubHandler gitHubHandler, Blackboard blackboard, BottomBar bottomBar) {
-        this.url = url;
-        this.gitHubHandler = gitHubHandler;
+    public GitFetch(SourceProvider provider, Blackboard blackboard, BottomBar bottomBar, int downloadConcurrency) {
+        this.provider = provider;
+        this.url = provider.getLocation();
         this.blackboard = blackboard;
         this.bottomBar = bottomBar;
+        this.downloader = new SourceDownloader(downloadConcurrency);
+    }
+
+    // Previous analysis of the same URL; when set, only changed files are fetched and re-analyzed
+    public void setBaseline(AnalysisSnapshot baseline) {
+        this.baseline = baseline;
+    }
+
+    // Receives the finished snapshot on the EDT after results are published
+    public void setOnComplete(Consumer<AnalysisSnapshot> onComplete) {
+        this.onComplete = onComplete;
     }
 
-    public void start() {
-        Thread worker = new Thread(this);
-        worker.setName("GitFetchWorker");
-        worker.start();
+    // Queues this fetch on the shared scheduler, superseding any analysis still queued or running
+    public AnalysisJob start() {
+        return AnalysisScheduler.getInstance().submit(url, this);
     }
 
     @Override
-    public void run() {
+    public void execute(AnalysisJob job) throws Exception {
         try {
-            updateStatus("Fetching file list...");
+            AnalysisSnapshot snapshot = analyze(job);
 
-            // Parse URL and ensure it's a folder
-            URLHelper helper = URLHelper.parseGitHubUrl(url);
-            if (helper.isBlob) {
-                throw new IllegalArgumentException("URL must point to a folder.");
+            // Stage 5: publish to UI
+            job.beginStage("Publish");
+            publishResults(snapshot);
+        } catch (CancellationException ex) {
+            LOG.info("Fetch superseded for {}", url);
+            throw ex;
+        } catch (Exception ex) {
+            if (job.isCancelled()) {
+                LOG.info("Fetch superseded for {}", url);
+                throw new CancellationException(ex.getMessage());
             }
+            postError(ex);
+            throw ex;
+        }
+    }
 
-            // Stage 1: list files
-            List<String> paths = gitHubHandler.listFilesRecursive(url);
-            updateStatus("Downloading sources...");
-            LOG.info("Listed {} paths from {}", paths.size(), url);
-
-            // Stage 2: download + build grid data and raw parse info
-            List<GridFileData> gridFiles = new ArrayList<>();
-            List<ParsedSource> sourceFiles = new ArrayList<>();
-            for (String path : paths) {
-                if (!path.endsWith(".java")) {
-                    continue;
+    // Runs the list, analyze, DIA and UML stages on the calling thread and returns the result without publishing it
+    public AnalysisSnapshot analyze(AnalysisJob job) throws Exception {
+        this.job = job;
+        stage("List", "Fetching file list...");
+
+        // Stage 1: list sources
+        List<SourceEntry> entries = provider.listSources();
+        stage("Analyze", "Downloading and analyzing sources...");
+        LOG.info("Listed {} Java sources from {}", entries.size(), url);
+
+        // Stages 2-4: per-file analysis, then global DIA metrics and UML
+        AnalysisSnapshot snapshot;
+        if (baseline != null && baseline.getLocation().equals(url) && baseline.canDiff() && hasVersions(entries)) {
+            snapshot = analyzeIncremental(entries);
+        } else {
+            snapshot = analyzeFull(entries);
+        }
+        return snapshot;
+    }
+
+    // Files that were listed but could not be read in the last run
+    public int getFailedDownloads() {
+        return failedDownloads;
+    }
+
+    // Wraps per-file analysis with a cancellation check so superseded jobs stop between files
+    private SourceDownloader.Processor<SourceAnalyzer.FileResult> cancellable(SourceAnalyzer analyzer) {
+        return (path, content) -> {
+            job.checkCancelled();
+            return analyzer.analyze(path, content);
+        };
+    }
+
+    private AnalysisSnapshot analyzeFull(List<SourceEntry> entries) throws Exception {
+        // Stream each file through per-file analysis as soon as it arrives (or comes from cache)
+        Set<String> repoClasses = SourceAnalyzer.classNamesOf(pathsOf(entries));
+        SourceAnalyzer analyzer = new SourceAnalyzer(repoClasses);
+        List<SourceDownloader.Result<SourceAnalyzer.FileResult>> results = provider.readAll(entries, downloader,
+                cancellable(analyzer));
+        job.checkCancelled();
+
+        List<GridFileData> gridFiles = new ArrayList<>();
+        List<ParsedSource> sourceFiles = new ArrayList<>();
+        Exception firstFailure = null;
+        for (SourceDownloader.Result<SourceAnalyzer.FileResult> result : results) {
+            if (!result.isSuccess()) {
+                failedDownloads++;
+                LOG.warn("Failed to download {}", result.getPath(), result.getError());
+                if (firstFailure == null) {
+                    firstFailure = result.getError();
                 }
-                String content = gitHubHandler.getFileContent(helper.owner, helper.repo, path, helper.ref);
-                gridFiles.add(analyzeGridData(path, content));
-                sourceFiles.add(new ParsedSource(path, content));
+                continue;
             }
-            LOG.info("Collected {} Java sources from {}", gridFiles.size(), url);
+            gridFiles.add(result.getValue().getGridData());
+            sourceFiles.add(result.getValue().getSource());
+        }
+        if (sourceFiles.isEmpty() && firstFailure != null) {
+            throw firstFailure;
+        }
+        LOG.info("Analyzed {} Java sources from {} ({} from cache, {} failed, concurrency {}, parallelism {})",
+                gridFiles.size(), url, provider.getCacheHits(), failedDownloads, downloader.getMaxConcurrency(),
+                downloader.getParallelism());
+
+        // Global DIA metrics (incoming counts need every file)
+        stage("DIA", "Calculating DIA metrics...");
+        DependencyGraph graph = DependencyGraph.build(sourceFiles);
+        DiaEngine engine = new DiaEngine(graph);
+        List<DiaMetricsData> metrics = engine.metricsFor(graph);
+        List<PackageMetricsData> packageMetrics = PackageMetrics.compute(graph);
+        LOG.info("Calculated DIA metrics for {} files and {} packages over {} edges", metrics.size(),
+                packageMetrics.size(), graph.getEdgeCount());
+
+        stage("Cycles", "Finding dependency cycles...");
+        StronglyConnectedComponents components = new StronglyConnectedComponents(graph);
+        List<CycleGroupData> cycles = components.cycleGroups();
+        LOG.info("Found {} dependency cycles among {} components", cycles.size(), components.getComponentCount());
+
+        stage("Reachability", "Indexing transitive dependencies...");
+        ReachabilityIndex reachability = new ReachabilityIndex(graph, components);
+
+        UmlDiagramData uml = buildUml(graph, components);
+        return new AnalysisSnapshot(url, repoClasses, versionsOf(entries), sourceFiles, gridFiles, graph, engine, metrics,
+                packageMetrics, cycles, reachability, uml);
+    }
 
-            // Stage 3: DIA metrics
-            updateStatus("Calculating DIA metrics...");
-            List<DiaMetricsData> metrics = buildDiaMetrics(sourceFiles);
-            LOG.info("Calculated DIA metrics for {} files", metrics.size());
+    // Re-fetches only added/changed files; graph rows and DIA metrics follow the delta, while package metrics, cycles,
+    // reachability and UML are recomputed over the whole graph (linear in its size)
+    private AnalysisSnapshot analyzeIncremental(List<SourceEntry> entries) throws Exception {
+        List<String> javaPaths = pathsOf(entries);
+        Map<String, String> versions = versionsOf(entries);
+        Map<String, ParsedSource> oldByPath = baseline.sourcesByPath();
+        Map<String, GridFileData> oldGridByPath = baseline.gridFilesByPath();
+        Map<String, String> oldVersions = baseline.getVersions();
+        Set<String> repoClasses = SourceAnalyzer.classNamesOf(javaPaths);
+        Set<String> addedClasses = new HashSet<>(repoClasses);
+        addedClasses.removeAll(baseline.getRepoClasses());
+        SourceAnalyzer analyzer = new SourceAnalyzer(repoClasses);
+
+        // Diff the listing: changed or added files are fetched; unchanged files that may mention a new class are re-scanned
+        List<SourceEntry> toRead = new ArrayList<>();
+        Set<String> toRescan = new HashSet<>();
+        for (SourceEntry entry : entries) {
+            String path = entry.getPath();
+            ParsedSource old = oldByPath.get(path);
+            String version = entry.getVersion();
+            if (old == null || version == null || !version.equals(oldVersions.get(path))) {
+                toRead.add(entry);
+            } else if (mentionsAny(old, addedClasses)) {
+                toRead.add(entry);
+                toRescan.add(path);
+            }
+        }
+        Set<String> listed = new HashSet<>(javaPaths);
+        Set<String> removedPaths = new HashSet<>();
+        for (String path : oldByPath.keySet()) {
+            if (!listed.contains(path)) {
+                removedPaths.add(path);
+            }
+        }
+        int removedCount = removedPaths.size();
+        LOG.info("Reload diff for {}: {} to fetch, {} to re-scan, {} removed", url, toRead.size() - toRescan.size(),
+                toRescan.size(), removedCount);
+
+        // Source text is not kept between runs, so re-scans read it back through the provider (its cache or the disk).
+        // Nothing to read means no readAll at all: the tarball provider would otherwise stream the whole archive.
+        Map<String, SourceAnalyzer.FileResult> fresh = new HashMap<>();
+        if (!toRead.isEmpty()) {
+            for (SourceDownloader.Result<SourceAnalyzer.FileResult> result : provider.readAll(toRead, downloader,
+                    cancellable(analyzer))) {
+                if (result.isSuccess()) {
+                    fresh.put(result.getPath(), result.getValue());
+                } else {
+                    failedDownloads++;
+                    LOG.warn("Failed to download {}; keeping previous version if any", result.getPath(), result.getError());
+                }
+            }
+        }
+        job.checkCancelled();
+
+        // Assemble the new file list in listing order, reusing untouched objects
+        List<ParsedSource> sourceFiles = new ArrayList<>();
+        List<GridFileData> gridFiles = new ArrayList<>();
+        Map<String, String> keptVersions = new HashMap<>();
+        for (String path : javaPaths) {
+            SourceAnalyzer.FileResult result = fresh.get(path);
+            ParsedSource old = oldByPath.get(path);
+            if (result != null) {
+                sourceFiles.add(result.getSource());
+                gridFiles.add(toRescan.contains(path) ? oldGridByPath.get(path) : result.getGridData());
+                keptVersions.put(path, versions.get(path));
+            } else if (old != null) {
+                sourceFiles.add(old);
+                gridFiles.add(oldGridByPath.get(path));
+                keptVersions.put(path, oldVersions.get(path));
+            }
+        }
+
+        // Edges to a class that is gone (removed, or its download failed) no longer resolve to a node
+        stage("DIA", "Updating DIA metrics...");
+        Set<String> touched = new HashSet<>(fresh.keySet());
+        touched.addAll(removedPaths);
+        DependencyGraph graph = DependencyGraph.update(baseline.getGraph(), sourceFiles, touched);
+        DiaEngine engine = baseline.takeDiaEngine();
+        if (engine == null) {
+            // The previous reload failed part way through applying its delta; start over from this graph
+            engine = new DiaEngine(graph);
+            LOG.info("Rebuilt DIA metrics for {} files over {} edges", engine.size(), graph.getEdgeCount());
+        } else {
+            GraphDelta delta = GraphDelta.between(baseline.getGraph(), graph, touched);
+            changedMetrics = engine.apply(delta);
+            LOG.info("Applied DIA delta of {} changes: {} of {} files changed metrics", delta.size(),
+                    changedMetrics.size(), engine.size());
+        }
+        List<DiaMetricsData> metrics = engine.metricsFor(graph);
+        // Package couplings are distinct-package counts, which a per-edge delta cannot maintain; the reduction is cheap to redo
+        List<PackageMetricsData> packageMetrics = PackageMetrics.compute(graph);
+
+        stage("Cycles", "Finding dependency cycles...");
+        StronglyConnectedComponents components = new StronglyConnectedComponents(graph);
+        List<CycleGroupData> cycles = components.cycleGroups();
+        LOG.info("Found {} dependency cycles among {} components", cycles.size(), components.getComponentCount());
+
+        stage("Reachability", "Indexing transitive dependencies...");
+        ReachabilityIndex reachability = new ReachabilityIndex(graph, components);
+
+        UmlDiagramData uml = buildUml(graph, components);
+        int rescanned = 0;
+        for (String path : toRescan) {
+            if (fresh.containsKey(path)) {
+                rescanned++;
+            }
+        }
+        reloadSummary = String.format("Reloaded: %d fetched, %d re-scanned (%d read from cache), %d removed",
+                fresh.size() - rescanned, rescanned, provider.getCacheHits(), removedCount);
+        return new AnalysisSnapshot(url, repoClasses, keptVersions, sourceFiles, gridFiles, graph, engine, metrics,
+                packageMetrics, cycles, reachability, uml);
+    }
 
-            // Stage 4: UML
-            updateStatus("Building UML...");
-            UmlDiagramData uml = new UmlBuilder().build(sourceFiles);
-            LOG.info("Built UML diagram with {} relations", umlRelationsCount(uml));
+    private boolean mentionsAny(ParsedSource file, Set<String> classNames) {
+        for (String name : classNames) {
+            if (file.mightMention(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-            // Stage 5: publish to UI
-            publishResults(gridFiles, metrics, uml);
-        } catch (Exception ex) {
-            postError(ex);
+    private static List<String> pathsOf(List<SourceEntry> entries) {
+        List<String> paths = new ArrayList<>(entries.size());
+        for (SourceEntry entry : entries) {
+            paths.add(entry.getPath());
+        }
+        return paths;
+    }
+
+    private static Map<String, String> versionsOf(List<SourceEntry> entries) {
+        Map<String, String> versions = new HashMap<>();
+        for (SourceEntry entry : entries) {
+            if (entry.getVersion() != null) {
+                versions.put(entry.getPath(), entry.getVersion());
+            }
+        }
+        return versions;
+    }
+
+    private static boolean hasVersions(List<SourceEntry> entries) {
+        for (SourceEntry entry : entries) {
+            if (entry.getVersion() != null) {
+                return true;
+            }
         }
+        return false;
     }
 
-    private void publishResults(List<GridFileData> gridFiles, List<DiaMetricsData> diaMetrics, UmlDiagramData umlDiagram) {
+    private void publishResults(AnalysisSnapshot snapshot) {
+        List<GridFileData> gridFiles = snapshot.getGridFiles();
+        List<DiaMetricsData> diaMetrics = snapshot.getDiaMetrics();
         SwingUtilities.invokeLater(() -> {
+            // A newer job may have started while this one was finishing; never overwrite its results
+            if (job.isCancelled()) {
+                LOG.info("Discarding stale results for {}", url);
+                return;
+            }
+            // Before the grid, so the rebuilt squares see which files are in a cycle
+            blackboard.setCycleGroups(snapshot.getCycleGroups());
+            blackboard.setReachability(snapshot.getReachability());
             blackboard.setGridFiles(gridFiles);
-            blackboard.setDiaMetrics(diaMetrics);
-            blackboard.setUmlDiagram(umlDiagram);
+            blackboard.setPackageMetrics(snapshot.getPackageMetrics());
+            blackboard.setDiaMetrics(diaMetrics, changedMetrics);
+            blackboard.setUmlDiagram(snapshot.getUmlDiagram());
+            if (onComplete != null) {
+                onComplete.accept(snapshot);
+            }
             if (gridFiles.isEmpty()) {
                 bottomBar.setStatusMessage("No .java files found.");
             } else {
@@ -127,8 +372,12 @@ public class GitFetch implements Runnable {
     }
 
     private String buildSummary(List<GridFileData> gridFiles, List<DiaMetricsData> diaMetrics) {
+        String failures = failedDownloads == 0 ? "" : " (" + failedDownloads + " failed to download)";
+        if (reloadSummary != null) {
+            return reloadSummary + failures;
+        }
         if (diaMetrics.isEmpty()) {
-            return gridFiles.size() + " files analyzed.";
+            return gridFiles.size() + " files analyzed" + failures + ".";
         }
         double avgInstability = diaMetrics.stream()
                 .mapToDouble(DiaMetricsData::getInstability)
@@ -138,158 +387,46 @@ public class GitFetch implements Runnable {
                 .mapToDouble(DiaMetricsData::getDistance)
                 .average()
                 .orElse(0.0);
-        return String.format("%d files analyzed | Avg Instability: %.2f | Avg Distance: %.2f",
-                gridFiles.size(), avgInstability, avgDistance);
+        return String.format("%d files analyzed%s | Avg Instability: %.2f | Avg Distance: %.2f",
+                gridFiles.size(), failures, avgInstability, avgDistance);
     }
 
     private void postError(Exception ex) {
         SwingUtilities.invokeLater(() -> {
             LOG.error("Fetch failed for URL: {}", url, ex);
+            if (job.isCancelled()) {
+                return;
+            }
             bottomBar.setStatusMessage("Error: " + ex.getMessage());
             blackboard.clear();
         });
     }
 
-    private void updateStatus(String message) {
-        SwingUtilities.invokeLater(() -> bottomBar.setStatusMessage(message));
+    private void stage(String name, String message) {
+        job.beginStage(name);
+        updateStatus(message);
     }
 
-    // Grid data: line count + simple complexity
-    private GridFileData analyzeGridData(String path, String content) {
-        String[] lines = content.split("\\R");
-        int lineCount = 0;
-        int complexity = 0;
-        for (String line : lines) {
-            if (!line.trim().isEmpty()) {
-                lineCount++;
-            }
-            Matcher matcher = COMPLEXITY_PATTERN.matcher(line);
-            while (matcher.find()) {
-                complexity++;
-            }
-        }
-        return new GridFileData(path, lineCount, complexity);
-    }
-
-    // DIA metrics using only repo classes
-    private List<DiaMetricsData> buildDiaMetrics(List<ParsedSource> files) {
-        // Step 1: collect class map and abstract/interface flags
-        Map<String, ParsedSource> byName = new HashMap<>();
-        for (ParsedSource file : files) {
-            byName.put(file.className, file);
-            file.isInterface = detectInterface(file.content, file.className);
-            file.isAbstract = detectAbstractClass(file.content, file.className);
-        }
-
-        Set<String> repoClasses = new HashSet<>(byName.keySet());
-
-        // capture extends/implements (only within repo)
-        for (ParsedSource file : files) {
-            file.parentClass = resolveExtends(file, repoClasses);
-            file.implementedInterfaces = resolveImplements(file, repoClasses);
-        }
-
-        // Step 2: collect associations (rough scan for composition/aggregation/dependency)
-        analyzeRelations(files, repoClasses);
-
-        // Step 3: count incoming references (all outgoing kinds)
-        for (ParsedSource file : files) {
-            for (String target : file.allOutgoing()) {
-                ParsedSource targetFile = byName.get(target);
-                if (targetFile != null) {
-                    targetFile.incomingCount++;
-                }
-            }
-        }
-
-        // Step 4: compute DIA metrics
-        List<DiaMetricsData> metrics = new ArrayList<>();
-        for (ParsedSource file : files) {
-            int outgoing = file.allOutgoing().size();
-            int incoming = file.incomingCount;
-            double abstractness = (file.isAbstract || file.isInterface) ? 1.0 : 0.0;
-            double denominator = incoming + outgoing;
-            double instability = denominator == 0 ? 0.0 : (double) outgoing / denominator;
-            double distance = Math.abs(abstractness + instability - 1.0);
-            metrics.add(new DiaMetricsData(file.path, abstractness, instability, distance, incoming, outgoing));
-        }
-        return metrics;
-    }
-
-    private int umlRelationsCount(UmlDiagramData uml) {
-        if (uml == null || uml.getPlantUmlText() == null) {
-            return 0;
-        }
-        return (int) uml.getPlantUmlText().lines()
-                .filter(line -> line.contains("..>") || line.contains("-->") || line.contains("*--") || line.contains("o--") || line.contains("..|>") || line.contains("--|>"))
-                .count();
-    }
-
-    private boolean detectInterface(String content, String className) {
-        Pattern interfacePattern = Pattern.compile("\\binterface\\s+" + Pattern.quote(className) + "\\b");
-        return interfacePattern.matcher(content).find();
-    }
-
-    private boolean detectAbstractClass(String content, String className) {
-        Pattern abstractClassPattern = Pattern.compile("\\babstract\\s+class\\s+" + Pattern.quote(className) + "\\b");
-        return abstractClassPattern.matcher(content).find();
-    }
-
-    private void analyzeRelations(List<ParsedSource> files, Set<String> repoClasses) {
-        for (ParsedSource file : files) {
-            String[] lines = file.content.split("\\R");
-            for (String line : lines) {
-                String trimmed = line.trim();
-                Matcher matcher = CLASS_NAME_PATTERN.matcher(line);
-                while (matcher.find()) {
-                    String candidate = matcher.group(1);
-                    if (candidate.equals(file.className) || !repoClasses.contains(candidate)) {
-                        continue;
-                    }
-                    boolean hasNew = line.contains("new " + candidate);
-                    boolean looksField = trimmed.matches(".*\\b" + candidate + "\\s+\\w+\\s*(=|;).*");
-                    boolean looksParam = trimmed.matches(".*\\b" + candidate + "\\s+\\w*\\(.*") || trimmed.contains("(" + candidate);
-                    if (hasNew) {
-                        file.compositions.add(candidate);
-                    } else if (looksField) {
-                        file.aggregations.add(candidate);
-                    } else if (looksParam) {
-                        file.dependencies.add(candidate); // treat parameters as dashed dependency
-                    } else {
-                        file.associations.add(candidate); // default to solid association
-                    }
-                }
-            }
+    private void updateStatus(String message) {
+        if (bottomBar == null) {
+            return;
         }
-    }
-
-    private String resolveExtends(ParsedSource file, Set<String> repoClasses) {
-        Pattern extendsPattern = Pattern.compile(String.format(EXTENDS_PATTERN.pattern(), Pattern.quote(file.className)));
-        Matcher matcher = extendsPattern.matcher(file.content);
-        if (matcher.find()) {
-            String parent = matcher.group(1);
-            if (repoClasses.contains(parent)) {
-                return parent;
+        SwingUtilities.invokeLater(() -> {
+            if (!job.isCancelled()) {
+                bottomBar.setStatusMessage(message);
             }
-        }
-        return null;
+        });
     }
 
-    private Set<String> resolveImplements(ParsedSource file, Set<String> repoClasses) {
-        Set<String> interfaces = new HashSet<>();
-        Pattern implementsPattern = Pattern.compile(String.format(IMPLEMENTS_PATTERN.pattern(), Pattern.quote(file.className)));
-        Matcher matcher = implementsPattern.matcher(file.content);
-        if (matcher.find()) {
-            String group = matcher.group(1);
-            String[] parts = group.split(",");
-            for (String part : parts) {
-                String name = part.trim();
-                if (repoClasses.contains(name)) {
-                    interfaces.add(name);
-                }
-            }
+    // Headless runs keep no diagram text; BatchMain streams it from the graph straight into the output file
+    private UmlDiagramData buildUml(DependencyGraph graph, StronglyConnectedComponents components) {
+        if (blackboard == null) {
+            return null;
         }
-        return interfaces;
+        stage("UML", "Building UML...");
+        UmlDiagramData uml = new UmlBuilder().build(graph, components);
+        LOG.info("Built UML diagram with {} relations", uml.getRelationCount());
+        return uml;
     }
 
 }
@@ -0,0 +1,352 @@
+package finalproject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ROLE: Service.
+ * GitHub REST transport: one pooled HTTP/2 client with gzip, an AdaptiveLimiter, and rate-limit-aware retries with jittered backoff.
+ * Used by the GitHub source providers for tree listings, file contents, and ref tarballs; listings and contents revalidate against an HttpResponseCache.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.1
+ */
+public class GitHubClient {
+
+    public static final String DEFAULT_API_BASE = "https://api.github.com";
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    private static final Logger LOG = LoggerFactory.getLogger(GitHubClient.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long BASE_BACKOFF_MILLIS = 250;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    /**
+     * Status, headers, and (decompressed) body of a finished request.
+     */
+    private static final class Response {
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        private Response(int status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    private final String apiBase;
+    private final String token;
+    private final HttpClient httpClient;
+    private final AdaptiveLimiter limiter;
+    private final int maxAttempts;
+    private final AtomicInteger retries = new AtomicInteger();
+    private final AtomicInteger throttles = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    private volatile HttpResponseCache responseCache;
+
+    public GitHubClient(String token) {
+        this(DEFAULT_API_BASE, token);
+    }
+
+    public GitHubClient(String apiBase, String token) {
+        this(apiBase, token, new AdaptiveLimiter(SourceDownloader.DEFAULT_CONCURRENCY, 1, SourceDownloader.DEFAULT_CONCURRENCY),
+                DEFAULT_MAX_ATTEMPTS);
+    }
+
+    public GitHubClient(String apiBase, String token, AdaptiveLimiter limiter, int maxAttempts) {
+        this.apiBase = apiBase.endsWith("/") ? apiBase.substring(0, apiBase.length() - 1) : apiBase;
+        this.token = token;
+        this.limiter = limiter;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        // One client for the whole app: it pools connections and multiplexes requests over HTTP/2 when the server allows
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(10))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    // Maps every blob path in the ref's tree to its blob SHA in a single request
+    public Map<String, String> listBlobShas(String owner, String repo, String ref) throws IOException, InterruptedException {
+        String uri = apiBase + "/repos/" + owner + "/" + repo + "/git/trees/"
+                + URLEncoder.encode(ref, StandardCharsets.UTF_8) + "?recursive=1";
+        Response response = send(uri, "application/vnd.github+json");
+        if (response.status != 200) {
+            throw new IOException("Tree listing failed with HTTP " + response.status + " for " + owner + "/" + repo);
+        }
+        JsonNode root = MAPPER.readTree(response.body);
+        if (root.path("truncated").asBoolean(false)) {
+            throw new IOException("Tree listing for " + owner + "/" + repo + "@" + ref + " was truncated");
+        }
+        Map<String, String> shas = new HashMap<>();
+        for (JsonNode entry : root.path("tree")) {
+            if ("blob".equals(entry.path("type").asText())) {
+                shas.put(entry.path("path").asText(), entry.path("sha").asText());
+            }
+        }
+        return shas;
+    }
+
+    public String getFileContent(String owner, String repo, String path, String ref) throws IOException, InterruptedException {
+        String uri = apiBase + "/repos/" + owner + "/" + repo + "/contents/" + encodePath(path)
+                + "?ref=" + URLEncoder.encode(ref, StandardCharsets.UTF_8);
+        Response response = send(uri, "application/vnd.github.raw");
+        if (response.status != 200) {
+            throw new IOException("Content download failed with HTTP " + response.status + " for " + path);
+        }
+        return new String(response.body, StandardCharsets.UTF_8);
+    }
+
+    // Streams the ref's tarball; the caller must close the stream
+    public InputStream openTarball(String owner, String repo, String ref) throws IOException, InterruptedException {
+        String uri = apiBase + "/repos/" + owner + "/" + repo + "/tarball/" + URLEncoder.encode(ref, StandardCharsets.UTF_8);
+        for (int attempt = 1; ; attempt++) {
+            limiter.acquire();
+            long started = System.currentTimeMillis();
+            HttpResponse<InputStream> response;
+            try {
+                response = httpClient.send(request(uri, "application/vnd.github+json", null), HttpResponse.BodyHandlers.ofInputStream());
+            } catch (IOException ex) {
+                limiter.onFailure();
+                retryOrThrow(attempt, ex, backoffMillis(attempt));
+                continue;
+            } catch (InterruptedException | RuntimeException | Error ex) {
+                limiter.onFailure();
+                throw ex;
+            }
+            if (response.statusCode() == 200) {
+                limiter.onSuccess(System.currentTimeMillis() - started);
+                return response.body();
+            }
+            Response failed;
+            try {
+                failed = new Response(response.statusCode(), response.headers(), decode(response.headers(), response.body()));
+            } catch (IOException | RuntimeException | Error ex) {
+                limiter.onFailure();
+                throw ex;
+            }
+            if (!settleFailure(failed, attempt)) {
+                throw new IOException("Tarball download failed with HTTP " + response.statusCode() + " for " + owner + "/" + repo);
+            }
+        }
+    }
+
+    public int getRetryCount() {
+        return retries.get();
+    }
+
+    public int getThrottleCount() {
+        return throttles.get();
+    }
+
+    // Conditional requests are only sent while a cache is set; 304s do not count against the primary rate limit
+    public void setResponseCache(HttpResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    // Requests answered 304 Not Modified and served from the response cache
+    public int getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    public AdaptiveLimiter getLimiter() {
+        return limiter;
+    }
+
+    // Folder part of https://github.com/<owner>/<repo>/tree/<ref>/<folder>
+    public static String folderOf(String url) {
+        String[] parts = url.replaceFirst("^https?://(www\\.)?github\\.com/", "").split("/");
+        if (parts.length <= 4 || !parts[2].equals("tree")) {
+            return "";
+        }
+        return String.join("/", Arrays.copyOfRange(parts, 4, parts.length));
+    }
+
+    // Sends with limiter admission, retrying throttled, 5xx, and network failures; a 304 is answered from the response cache
+    private Response send(String uri, String accept) throws IOException, InterruptedException {
+        HttpResponseCache.Entry cached = responseCache == null ? null : responseCache.get(uri, accept);
+        for (int attempt = 1; ; attempt++) {
+            limiter.acquire();
+            long started = System.currentTimeMillis();
+            Response response;
+            try {
+                HttpRequest request = request(uri, accept, cached == null ? null : cached.getEtag());
+                HttpResponse<InputStream> raw = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                response = new Response(raw.statusCode(), raw.headers(), decode(raw.headers(), raw.body()));
+            } catch (IOException ex) {
+                limiter.onFailure();
+                retryOrThrow(attempt, ex, backoffMillis(attempt));
+                continue;
+            } catch (InterruptedException | RuntimeException | Error ex) {
+                limiter.onFailure();
+                throw ex;
+            }
+            if (response.status >= 400) {
+                if (settleFailure(response, attempt)) {
+                    continue;
+                }
+                applyRateLimitHeaders(response.headers);
+                return response;
+            }
+            limiter.onSuccess(System.currentTimeMillis() - started);
+            applyRateLimitHeaders(response.headers);
+            if (response.status == 304 && cached != null) {
+                notModified.incrementAndGet();
+                return new Response(200, response.headers, cached.getBody());
+            }
+            if (response.status == 200) {
+                store(uri, accept, response);
+            }
+            return response;
+        }
+    }
+
+    private void store(String uri, String accept, Response response) {
+        String etag = response.headers.firstValue("ETag").orElse(null);
+        if (responseCache == null || etag == null || etag.indexOf('\n') >= 0) {
+            return;
+        }
+        try {
+            responseCache.put(uri, accept, etag, response.body);
+        } catch (IOException ex) {
+            LOG.warn("Unable to cache response for {}", uri, ex);
+        }
+    }
+
+    // Frees the attempt's limiter slot on every path, then returns true when the caller should retry; throttling pauses every request
+    private boolean settleFailure(Response response, int attempt) throws IOException, InterruptedException {
+        long pause = -1;
+        try {
+            if (isThrottled(response)) {
+                pause = throttlePauseMillis(response, attempt);
+            }
+        } finally {
+            if (pause >= 0) {
+                limiter.onThrottle(pause);
+            } else {
+                limiter.onFailure();
+            }
+        }
+        if (pause >= 0) {
+            throttles.incrementAndGet();
+            LOG.warn("GitHub throttled request (HTTP {}); pausing {} ms, limit now {}", response.status, pause, limiter.getLimit());
+            if (attempt >= maxAttempts) {
+                throw new IOException("GitHub rate limit still exceeded after " + attempt + " attempts");
+            }
+            retries.incrementAndGet();
+            return true;
+        }
+        if (response.status >= 500 && attempt < maxAttempts) {
+            retries.incrementAndGet();
+            Thread.sleep(backoffMillis(attempt));
+            return true;
+        }
+        return false;
+    }
+
+    private void retryOrThrow(int attempt, IOException ex, long delayMillis) throws IOException, InterruptedException {
+        if (attempt >= maxAttempts) {
+            throw ex;
+        }
+        retries.incrementAndGet();
+        LOG.debug("Retrying after network error (attempt {}): {}", attempt, ex.getMessage());
+        Thread.sleep(delayMillis);
+    }
+
+    private boolean isThrottled(Response response) {
+        if (response.status == 429) {
+            return true;
+        }
+        if (response.status != 403) {
+            return false;
+        }
+        if (response.headers.firstValue("Retry-After").isPresent()
+                || response.headers.firstValueAsLong("X-RateLimit-Remaining").orElse(1) == 0) {
+            return true;
+        }
+        return new String(response.body, StandardCharsets.UTF_8).toLowerCase().contains("rate limit");
+    }
+
+    // Retry-After wins, then the primary limit reset, then exponential backoff
+    private long throttlePauseMillis(Response response, int attempt) {
+        long retryAfter = response.headers.firstValueAsLong("Retry-After").orElse(-1);
+        if (retryAfter >= 0) {
+            return retryAfter * 1000 + ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MILLIS);
+        }
+        long remaining = response.headers.firstValueAsLong("X-RateLimit-Remaining").orElse(1);
+        long reset = response.headers.firstValueAsLong("X-RateLimit-Reset").orElse(0);
+        if (remaining == 0 && reset > 0) {
+            return Math.max(0, reset * 1000 - System.currentTimeMillis()) + ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MILLIS);
+        }
+        return backoffMillis(attempt);
+    }
+
+    // Full jitter: uniform in [0, base * 2^attempt], capped
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(attempt, 16));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private void applyRateLimitHeaders(HttpHeaders headers) {
+        long remaining = headers.firstValueAsLong("X-RateLimit-Remaining").orElse(-1);
+        if (remaining >= 0) {
+            limiter.onRateLimit(remaining, headers.firstValueAsLong("X-RateLimit-Reset").orElse(0));
+        }
+    }
+
+    private static byte[] decode(HttpHeaders headers, InputStream body) throws IOException {
+        boolean gzip = headers.firstValue("Content-Encoding").map(value -> value.equalsIgnoreCase("gzip")).orElse(false);
+        try (InputStream in = gzip ? new GZIPInputStream(body) : body) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static String encodePath(String path) {
+        StringBuilder builder = new StringBuilder();
+        for (String segment : path.split("/")) {
+            if (builder.length() > 0) {
+                builder.append('/');
+            }
+            builder.append(URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20"));
+        }
+        return builder.toString();
+    }
+
+    private HttpRequest request(String uri, String accept, String etag) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", accept)
+                .header("Accept-Encoding", "gzip")
+                .header("X-GitHub-Api-Version", "2022-11-28");
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        if (token != null && !token.isBlank()) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.GET().build();
+    }
+}
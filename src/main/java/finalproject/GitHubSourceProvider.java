@@ -0,0 +1,124 @@
+package finalproject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javiergs.tulip.GitHubHandler;
+import javiergs.tulip.URLHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ROLE: Service.
+ * SourceProvider for a GitHub folder URL: lists the folder from one tree request and downloads each file, serving repeats from the SourceCache.
+ * Requests go through GitHubClient's rate-limit-aware transport; GitHubHandler is the fallback when the tree listing is unavailable.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class GitHubSourceProvider implements SourceProvider {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GitHubSourceProvider.class);
+
+    private final String url;
+    private final GitHubHandler gitHubHandler;
+    private final GitHubClient gitHubClient;
+    private final SourceCache sourceCache;
+    private final AtomicInteger cacheHits = new AtomicInteger();
+
+    private URLHelper helper;
+
+    public GitHubSourceProvider(String url, GitHubHandler gitHubHandler, GitHubClient gitHubClient, SourceCache sourceCache) {
+        this.url = url;
+        this.gitHubHandler = gitHubHandler;
+        this.gitHubClient = gitHubClient;
+        this.sourceCache = sourceCache;
+    }
+
+    @Override
+    public String getLocation() {
+        return url;
+    }
+
+    @Override
+    public List<SourceEntry> listSources() throws Exception {
+        // Parse URL and ensure it's a folder
+        helper = URLHelper.parseGitHubUrl(url);
+        if (helper.isBlob) {
+            throw new IllegalArgumentException("URL must point to a folder.");
+        }
+        Map<String, String> blobShas = listBlobShas();
+        List<String> paths;
+        if (blobShas.isEmpty()) {
+            paths = gitHubHandler.listFilesRecursive(url);
+        } else {
+            // The tree covers the whole ref; keep only the requested folder
+            String folder = GitHubClient.folderOf(url);
+            String prefix = folder.isEmpty() ? "" : folder + "/";
+            paths = new ArrayList<>();
+            for (String path : blobShas.keySet()) {
+                if (path.startsWith(prefix)) {
+                    paths.add(path);
+                }
+            }
+            Collections.sort(paths);
+        }
+        LOG.info("Listed {} paths from {}", paths.size(), url);
+        List<SourceEntry> entries = new ArrayList<>();
+        for (String path : SourceAnalyzer.javaPaths(paths)) {
+            entries.add(new SourceEntry(path, blobShas.get(path)));
+        }
+        return entries;
+    }
+
+    @Override
+    public String read(SourceEntry entry) throws Exception {
+        String path = entry.getPath();
+        String blobSha = entry.getVersion();
+        if (blobSha == null || sourceCache == null) {
+            return download(path);
+        }
+        String cached = sourceCache.get(helper.owner, helper.repo, helper.ref, path, blobSha);
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            return cached;
+        }
+        String content = download(path);
+        try {
+            sourceCache.put(helper.owner, helper.repo, helper.ref, path, blobSha, content);
+        } catch (Exception ex) {
+            LOG.warn("Unable to cache {}", path, ex);
+        }
+        return content;
+    }
+
+    @Override
+    public int getCacheHits() {
+        return cacheHits.get();
+    }
+
+    private String download(String path) throws Exception {
+        if (gitHubClient == null) {
+            return gitHubHandler.getFileContent(helper.owner, helper.repo, path, helper.ref);
+        }
+        return gitHubClient.getFileContent(helper.owner, helper.repo, path, helper.ref);
+    }
+
+    // Blob SHAs key the source cache; without them the folder is listed through GitHubHandler, but an interrupt propagates
+    private Map<String, String> listBlobShas() throws InterruptedException {
+        if (gitHubClient == null) {
+            return Map.of();
+        }
+        try {
+            return gitHubClient.listBlobShas(helper.owner, helper.repo, helper.ref);
+        } catch (IOException | RuntimeException ex) {
+            LOG.warn("Unable to list the tree for {}; falling back to a recursive listing without cache", url, ex);
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package finalproject;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import javiergs.tulip.URLHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ROLE: Service.
+ * SourceProvider that downloads a ref's tarball in one request and stream-decompresses it, keeping only .java files under the folder.
+ * With a tree listing the sources go straight from decompression to analysis; otherwise they wait in a temporary spill file, as for a local .tar.gz.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class GitHubTarballSourceProvider implements SourceProvider {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GitHubTarballSourceProvider.class);
+
+    /**
+     * Opens the gzip-compressed tarball stream.
+     */
+    @FunctionalInterface
+    public interface TarballOpener {
+        InputStream open() throws Exception;
+    }
+
+    /**
+     * Lists every blob path in the ref with its git blob SHA, ahead of the download.
+     */
+    @FunctionalInterface
+    public interface BlobLister {
+        Map<String, String> list() throws Exception;
+    }
+
+    /**
+     * Receives each kept source while the tarball is being decompressed.
+     */
+    @FunctionalInterface
+    private interface SourceVisitor {
+        void visit(String path, byte[] data) throws Exception;
+    }
+
+    /**
+     * Where one kept source sits in the spill file.
+     */
+    private static final class Span {
+        private final long offset;
+        private final int length;
+
+        private Span(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private final String location;
+    private final String folderPrefix;
+    private final TarballOpener opener;
+    private final BlobLister lister;
+    // Java sources kept from the single download until readAll hands them to analysis, in tarball order
+    private Map<String, Span> spans = new LinkedHashMap<>();
+    private FileChannel spill;
+
+    public GitHubTarballSourceProvider(String url, GitHubClient gitHubClient) {
+        this(url, GitHubClient.folderOf(url), () -> {
+            URLHelper helper = URLHelper.parseGitHubUrl(url);
+            if (helper.isBlob) {
+                throw new IllegalArgumentException("URL must point to a folder.");
+            }
+            return gitHubClient.openTarball(helper.owner, helper.repo, helper.ref);
+        }, () -> {
+            URLHelper helper = URLHelper.parseGitHubUrl(url);
+            return gitHubClient.listBlobShas(helper.owner, helper.repo, helper.ref);
+        });
+    }
+
+    public GitHubTarballSourceProvider(String location, String folderPath, TarballOpener opener) {
+        this(location, folderPath, opener, null);
+    }
+
+    public GitHubTarballSourceProvider(String location, String folderPath, TarballOpener opener, BlobLister lister) {
+        this.location = location;
+        String folder = folderPath == null ? "" : folderPath.replaceAll("^/+|/+$", "");
+        this.folderPrefix = folder.isEmpty() ? "" : folder + "/";
+        this.opener = opener;
+        this.lister = lister;
+    }
+
+    @Override
+    public String getLocation() {
+        return location;
+    }
+
+    @Override
+    public List<SourceEntry> listSources() throws Exception {
+        closeSpill();
+        List<SourceEntry> listed = listFromTree();
+        if (listed != null) {
+            LOG.info("Listed {} Java sources under '{}' from the tree of {}; the tarball streams into analysis", listed.size(),
+                    folderPrefix, location);
+            return listed;
+        }
+        Map<String, Span> kept = new LinkedHashMap<>();
+        List<SourceEntry> entries = new ArrayList<>();
+        // Deleted as soon as the channel closes, so an abandoned spill never outlives the process
+        FileChannel channel = FileChannel.open(Files.createTempFile("tarball-", ".spill"), StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        long[] offset = {0};
+        try {
+            forEachSource((path, data) -> {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                kept.put(path, new Span(offset[0], data.length));
+                offset[0] += data.length;
+                entries.add(new SourceEntry(path, gitBlobSha(data)));
+            });
+        } catch (Exception ex) {
+            channel.close();
+            throw ex;
+        }
+        entries.sort(Comparator.comparing(SourceEntry::getPath));
+        spans = kept;
+        spill = channel;
+        LOG.info("Streamed {} Java sources under '{}' from one tarball for {}", entries.size(), folderPrefix, location);
+        return entries;
+    }
+
+    @Override
+    public String read(SourceEntry entry) throws Exception {
+        Span span = spans.get(entry.getPath());
+        if (span == null || spill == null) {
+            throw new FileNotFoundException(entry.getPath());
+        }
+        return readSpan(spill, span);
+    }
+
+    @Override
+    public <T> List<SourceDownloader.Result<T>> readAll(List<SourceEntry> entries, SourceDownloader downloader,
+                                                        SourceDownloader.Processor<T> processor) throws Exception {
+        List<String> paths = new ArrayList<>(entries.size());
+        for (SourceEntry entry : entries) {
+            paths.add(entry.getPath());
+        }
+        Set<String> wanted = new HashSet<>(paths);
+        Map<String, Span> pending = spans;
+        FileChannel channel = spill;
+        spans = new LinkedHashMap<>();
+        spill = null;
+        if (channel == null) {
+            // Listed from the tree: the single decompression pass feeds analysis directly, nothing is staged
+            return downloader.processStream(paths, sink -> forEachSource((path, data) -> {
+                if (wanted.contains(path)) {
+                    sink.accept(path, new String(data, StandardCharsets.UTF_8));
+                }
+            }), processor);
+        }
+        // Reads back in write order, one file at a time, so only files waiting for a core are on the heap
+        try (channel) {
+            return downloader.processStream(paths, sink -> {
+                for (Map.Entry<String, Span> source : pending.entrySet()) {
+                    if (wanted.contains(source.getKey())) {
+                        sink.accept(source.getKey(), readSpan(channel, source.getValue()));
+                    }
+                }
+            }, processor);
+        }
+    }
+
+    // Entries and blob SHAs from the tree listing, or null when there is none and the tarball must be staged first
+    private List<SourceEntry> listFromTree() throws Exception {
+        if (lister == null) {
+            return null;
+        }
+        Map<String, String> blobShas;
+        try {
+            blobShas = lister.list();
+        } catch (IOException ex) {
+            LOG.warn("Unable to list the tree for {}; staging the tarball instead", location, ex);
+            return null;
+        }
+        List<SourceEntry> entries = new ArrayList<>();
+        for (Map.Entry<String, String> blob : blobShas.entrySet()) {
+            if (blob.getKey().startsWith(folderPrefix) && blob.getKey().endsWith(".java")) {
+                entries.add(new SourceEntry(blob.getKey(), blob.getValue()));
+            }
+        }
+        entries.sort(Comparator.comparing(SourceEntry::getPath));
+        return entries;
+    }
+
+    // One decompression pass over the tarball, handing each .java file under the folder to the visitor in tarball order
+    private void forEachSource(SourceVisitor visitor) throws Exception {
+        try (TarStreamReader tar = new TarStreamReader(
+                new GZIPInputStream(new BufferedInputStream(opener.open(), 64 * 1024), 64 * 1024))) {
+            for (TarStreamReader.Entry entry = tar.next(); entry != null; entry = tar.next()) {
+                // GitHub tarballs wrap everything in a single "<owner>-<repo>-<sha>/" directory
+                String name = entry.getName();
+                int slash = name.indexOf('/');
+                String path = slash >= 0 ? name.substring(slash + 1) : name;
+                if (path.startsWith(folderPrefix) && path.endsWith(".java")) {
+                    visitor.visit(path, tar.readContent());
+                }
+            }
+        }
+    }
+
+    // Positional reads, so concurrent read() calls never disturb each other
+    private static String readSpan(FileChannel channel, Span span) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(span.length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, span.offset + buffer.position()) < 0) {
+                throw new EOFException("Spill file truncated");
+            }
+        }
+        return new String(buffer.array(), StandardCharsets.UTF_8);
+    }
+
+    private void closeSpill() throws IOException {
+        if (spill != null) {
+            spill.close();
+            spill = null;
+        }
+        spans = new LinkedHashMap<>();
+    }
+
+    // Same SHA-1 GitHub reports for the blob, so reload diffs line up with the per-file mode
+    static String gitBlobSha(byte[] data) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        digest.update(("blob " + data.length + "\0").getBytes(StandardCharsets.US_ASCII));
+        return HexFormat.of().formatHex(digest.digest(data));
+    }
+}
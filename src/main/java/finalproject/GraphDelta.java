@@ -0,0 +1,148 @@
+package finalproject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ROLE: Data.
+ * Class- and edge-level difference between two dependency graphs, with classes and edges identified by file path.
+ * GitFetch derives one on reload from the files it re-analyzed or removed; DiaEngine applies it to update only the affected metrics.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class GraphDelta {
+
+    /**
+     * A directed dependency between two files.
+     */
+    public static final class Edge {
+        private final String from;
+        private final String to;
+
+        public Edge(String from, String to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        public String getFrom() {
+            return from;
+        }
+
+        public String getTo() {
+            return to;
+        }
+    }
+
+    private final List<String> removedClasses = new ArrayList<>();
+    // Added or re-analyzed files; a path already present replaces its parse info but keeps its edges
+    private final List<ParsedSource> addedClasses = new ArrayList<>();
+    private final List<Edge> removedEdges = new ArrayList<>();
+    private final List<Edge> addedEdges = new ArrayList<>();
+
+    public void removeClass(String path) {
+        removedClasses.add(path);
+    }
+
+    public void addClass(ParsedSource source) {
+        addedClasses.add(source);
+    }
+
+    public void removeEdge(String from, String to) {
+        removedEdges.add(new Edge(from, to));
+    }
+
+    public void addEdge(String from, String to) {
+        addedEdges.add(new Edge(from, to));
+    }
+
+    public List<String> getRemovedClasses() {
+        return Collections.unmodifiableList(removedClasses);
+    }
+
+    public List<ParsedSource> getAddedClasses() {
+        return Collections.unmodifiableList(addedClasses);
+    }
+
+    public List<Edge> getRemovedEdges() {
+        return Collections.unmodifiableList(removedEdges);
+    }
+
+    public List<Edge> getAddedEdges() {
+        return Collections.unmodifiableList(addedEdges);
+    }
+
+    public int size() {
+        return removedClasses.size() + addedClasses.size() + removedEdges.size() + addedEdges.size();
+    }
+
+    // Diffs only the rows that can differ: the touched files, plus every file that pointed at a touched file's qualified name
+    // in either graph (that reference may now resolve elsewhere); cost is proportional to those rows' edges
+    public static GraphDelta between(DependencyGraph before, DependencyGraph after, Collection<String> touchedPaths) {
+        Set<String> rows = new HashSet<>(touchedPaths);
+        for (String path : touchedPaths) {
+            addReferrers(before, before.nodeOfPath(path), before, after, rows);
+            addReferrers(after, after.nodeOfPath(path), before, after, rows);
+        }
+
+        GraphDelta delta = new GraphDelta();
+        for (String path : touchedPaths) {
+            int node = after.nodeOfPath(path);
+            if (node >= 0) {
+                delta.addClass(after.getSource(node));
+            } else if (before.nodeOfPath(path) >= 0) {
+                delta.removeClass(path);
+            }
+        }
+        for (String path : rows) {
+            Set<String> oldTargets = targetPaths(before, path);
+            Set<String> newTargets = targetPaths(after, path);
+            for (String target : oldTargets) {
+                if (!newTargets.contains(target)) {
+                    delta.removeEdge(path, target);
+                }
+            }
+            for (String target : newTargets) {
+                if (!oldTargets.contains(target)) {
+                    delta.addEdge(path, target);
+                }
+            }
+        }
+        return delta;
+    }
+
+    // Files pointing at whichever node owns this node's qualified name, in both graphs
+    private static void addReferrers(DependencyGraph graph, int node, DependencyGraph before, DependencyGraph after,
+                                     Set<String> rows) {
+        if (node < 0) {
+            return;
+        }
+        String qualifiedName = graph.getName(node);
+        for (DependencyGraph side : List.of(before, after)) {
+            int owner = side.nodeOf(qualifiedName);
+            if (owner < 0) {
+                continue;
+            }
+            for (int i = side.getIncomingStart(owner); i < side.getIncomingEnd(owner); i++) {
+                rows.add(side.getPath(side.getIncomingSource(i)));
+            }
+        }
+    }
+
+    private static Set<String> targetPaths(DependencyGraph graph, String path) {
+        int node = graph.nodeOfPath(path);
+        if (node < 0) {
+            return Collections.emptySet();
+        }
+        Set<String> paths = new HashSet<>();
+        for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++) {
+            paths.add(graph.getPath(graph.getTarget(edge)));
+        }
+        return paths;
+    }
+}
@@ -1,8 +1,11 @@
 package finalproject;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * ROLE: Data.
- * Holds a file path plus line count and simple complexity for grid coloring.
+ * Holds a file path plus line count, decision-point complexity, and per-method cyclomatic complexity for grid coloring.
  * Produced by GitFetch and consumed by FileGridTab, FileSquare, and BottomBar summaries.
  *
  * @author Parker Jones
@@ -11,14 +14,56 @@ package finalproject;
  */
 public class GridFileData {
 
+    /**
+     * Cyclomatic complexity of one method or constructor.
+     */
+    public static final class MethodComplexity {
+        private final String name;
+        private final int line;
+        private final int complexity;
+
+        public MethodComplexity(String name, int line, int complexity) {
+            this.name = name;
+            this.line = line;
+            this.complexity = complexity;
+        }
+
+        // Type.method
+        public String getName() {
+            return name;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public int getComplexity() {
+            return complexity;
+        }
+    }
+
     private final String name;
     private final int lineCount;
     private final int complexity;
+    private final List<MethodComplexity> methods;
+    private final MethodComplexity worstMethod;
 
     public GridFileData(String name, int lineCount, int complexity) {
+        this(name, lineCount, complexity, Collections.emptyList());
+    }
+
+    public GridFileData(String name, int lineCount, int complexity, List<MethodComplexity> methods) {
         this.name = name;
         this.lineCount = lineCount;
         this.complexity = complexity;
+        this.methods = Collections.unmodifiableList(methods);
+        MethodComplexity worst = null;
+        for (MethodComplexity method : methods) {
+            if (worst == null || method.getComplexity() > worst.getComplexity()) {
+                worst = method;
+            }
+        }
+        this.worstMethod = worst;
     }
 
     public String getName() {
@@ -29,7 +74,22 @@ public class GridFileData {
         return lineCount;
     }
 
+    // Decision points in the whole file
     public int getComplexity() {
         return complexity;
     }
+
+    // In source order
+    public List<MethodComplexity> getMethods() {
+        return methods;
+    }
+
+    // Null when the file declares no method bodies
+    public MethodComplexity getWorstMethod() {
+        return worstMethod;
+    }
+
+    public int getMaxMethodComplexity() {
+        return worstMethod == null ? 0 : worstMethod.getComplexity();
+    }
 }
@@ -0,0 +1,94 @@
+package finalproject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ROLE: Data/Service.
+ * Persistent store of GitHub response bodies with their ETags, used to revalidate with If-None-Match.
+ * GitHubClient consults it on every request and serves a 304 from here; backed by a DiskCache.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class HttpResponseCache {
+
+    public static final String DIRECTORY_NAME = "http";
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpResponseCache.class);
+
+    /**
+     * ETag and body of a stored 200 response.
+     */
+    public static final class Entry {
+        private final String etag;
+        private final byte[] body;
+
+        Entry(String etag, byte[] body) {
+            this.etag = etag;
+            this.body = body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+
+    private final DiskCache store;
+
+    public HttpResponseCache(DiskCache store) {
+        this.store = store;
+    }
+
+    public static HttpResponseCache open(Path directory, long maxBytes) throws IOException {
+        return new HttpResponseCache(new DiskCache(directory, maxBytes));
+    }
+
+    public Entry get(String uri, String accept) {
+        return store.read(key(uri, accept), mapped -> parse(uri, mapped));
+    }
+
+    public void put(String uri, String accept, String etag, byte[] body) throws IOException {
+        byte[] header = (etag + '\n').getBytes(StandardCharsets.UTF_8);
+        byte[] data = new byte[header.length + body.length];
+        System.arraycopy(header, 0, data, 0, header.length);
+        System.arraycopy(body, 0, data, header.length, body.length);
+        store.write(key(uri, accept), data);
+    }
+
+    // Stored as "<etag>\n<body>"; ETags never contain a newline
+    private static Entry parse(String uri, ByteBuffer buffer) {
+        int newline = -1;
+        for (int i = 0; i < buffer.limit(); i++) {
+            if (buffer.get(i) == '\n') {
+                newline = i;
+                break;
+            }
+        }
+        if (newline <= 0) {
+            LOG.warn("Ignoring malformed cached response for {}", uri);
+            return null;
+        }
+        byte[] etag = new byte[newline];
+        buffer.get(0, etag);
+        byte[] body = new byte[buffer.limit() - newline - 1];
+        buffer.get(newline + 1, body);
+        return new Entry(new String(etag, StandardCharsets.UTF_8), body);
+    }
+
+    // The Accept header selects the representation, so it is part of the key
+    static String key(String uri, String accept) {
+        return SourceCache.sha256(accept + ' ' + uri);
+    }
+}
@@ -0,0 +1,316 @@
+package finalproject;
+
+/**
+ * ROLE: Service.
+ * Single-pass Java tokenizer that skips whitespace and comments and treats string, char and text-block literals as single tokens.
+ * Tokens are reported as offsets into the source (no substring per token); SourceAnalyzer classifies relations from them.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class JavaLexer {
+
+    public static final int EOF = 0;
+    public static final int IDENTIFIER = 1;
+    public static final int NUMBER = 2;
+    public static final int STRING = 3;
+    public static final int CHAR = 4;
+    public static final int OPERATOR = 5;
+
+    /**
+     * Whole token stream of one file, packed as (type, start, end, line) ints so lookahead stays allocation-free.
+     */
+    public static final class Tokens {
+        private static final int STRIDE = 4;
+
+        private final CharSequence source;
+        private int[] data;
+        private int size;
+        private int nonBlankLines;
+
+        private Tokens(CharSequence source, int capacity) {
+            this.source = source;
+            this.data = new int[Math.max(16, capacity) * STRIDE];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // Lines holding any code or comment text, counted while lexing
+        public int getNonBlankLines() {
+            return nonBlankLines;
+        }
+
+        // Out-of-range indexes read as EOF so callers can look around without bounds checks
+        public int type(int index) {
+            return index < 0 || index >= size ? EOF : data[index * STRIDE];
+        }
+
+        public int start(int index) {
+            return data[index * STRIDE + 1];
+        }
+
+        public int end(int index) {
+            return data[index * STRIDE + 2];
+        }
+
+        public int line(int index) {
+            return data[index * STRIDE + 3];
+        }
+
+        public boolean is(int index, String text) {
+            return type(index) != EOF && regionEquals(source, start(index), end(index), text);
+        }
+
+        public boolean isOperator(int index, char op) {
+            return type(index) == OPERATOR && end(index) - start(index) == 1 && source.charAt(start(index)) == op;
+        }
+
+        public CharSequence getSource() {
+            return source;
+        }
+
+        public char charAt(int offset) {
+            return source.charAt(offset);
+        }
+
+        public String text(int index) {
+            return source.subSequence(start(index), end(index)).toString();
+        }
+
+        private void add(int type, int start, int end, int line) {
+            if ((size + 1) * STRIDE > data.length) {
+                int[] grown = new int[data.length * 2];
+                System.arraycopy(data, 0, grown, 0, size * STRIDE);
+                data = grown;
+            }
+            int base = size * STRIDE;
+            data[base] = type;
+            data[base + 1] = start;
+            data[base + 2] = end;
+            data[base + 3] = line;
+            size++;
+        }
+    }
+
+    private final CharSequence source;
+    private final int length;
+    private int position;
+    private int line = 1;
+    private int type = EOF;
+    private int start;
+    private int end;
+    private int tokenLine;
+    private int lastContentLine;
+    // Comment lines count; blank lines inside comments and text blocks do not
+    private int nonBlankLines;
+
+    private JavaLexer(CharSequence source) {
+        this.source = source;
+        this.length = source.length();
+    }
+
+    // Lexes the whole source up front; roughly one token per six characters of typical Java
+    public static Tokens tokenize(CharSequence source) {
+        JavaLexer lexer = new JavaLexer(source);
+        Tokens tokens = new Tokens(source, source.length() / 6);
+        while (lexer.next() != EOF) {
+            tokens.add(lexer.type, lexer.start, lexer.end, lexer.tokenLine);
+        }
+        tokens.nonBlankLines = lexer.nonBlankLines;
+        return tokens;
+    }
+
+    // Advances to the next token and returns its type
+    private int next() {
+        skipWhitespaceAndComments();
+        start = position;
+        tokenLine = line;
+        if (position >= length) {
+            type = EOF;
+            end = position;
+            return type;
+        }
+        char c = source.charAt(position);
+        markContent();
+        if (Character.isJavaIdentifierStart(c)) {
+            position++;
+            while (position < length && Character.isJavaIdentifierPart(source.charAt(position))) {
+                position++;
+            }
+            type = IDENTIFIER;
+        } else if (isDigit(c) || (c == '.' && position + 1 < length && isDigit(source.charAt(position + 1)))) {
+            scanNumber();
+            type = NUMBER;
+        } else if (c == '"') {
+            if (position + 2 < length && source.charAt(position + 1) == '"' && source.charAt(position + 2) == '"') {
+                scanTextBlock();
+            } else {
+                scanQuoted('"');
+            }
+            type = STRING;
+        } else if (c == '\'') {
+            scanQuoted('\'');
+            type = CHAR;
+        } else {
+            position += operatorLength(c);
+            type = OPERATOR;
+        }
+        end = position;
+        return type;
+    }
+
+    private void markContent() {
+        if (line != lastContentLine) {
+            lastContentLine = line;
+            nonBlankLines++;
+        }
+    }
+
+    private void skipWhitespaceAndComments() {
+        while (position < length) {
+            char c = source.charAt(position);
+            if (c == '\n') {
+                line++;
+                position++;
+            } else if (Character.isWhitespace(c)) {
+                position++;
+            } else if (c == '/' && position + 1 < length && source.charAt(position + 1) == '/') {
+                markContent();
+                while (position < length && source.charAt(position) != '\n') {
+                    position++;
+                }
+            } else if (c == '/' && position + 1 < length && source.charAt(position + 1) == '*') {
+                markContent();
+                position += 2;
+                while (position < length && !(source.charAt(position) == '*' && position + 1 < length && source.charAt(position + 1) == '/')) {
+                    char inside = source.charAt(position);
+                    if (inside == '\n') {
+                        line++;
+                    } else if (!Character.isWhitespace(inside)) {
+                        markContent();
+                    }
+                    position++;
+                }
+                if (position < length) {
+                    // The closing */ may sit alone on its line
+                    markContent();
+                }
+                position = Math.min(length, position + 2);
+            } else {
+                return;
+            }
+        }
+    }
+
+    // Digits, letters (hex digits, suffixes, exponents), underscores, dots, and a sign right after an exponent
+    private void scanNumber() {
+        position++;
+        while (position < length) {
+            char c = source.charAt(position);
+            if (c == '+' || c == '-') {
+                char previous = source.charAt(position - 1);
+                if (previous != 'e' && previous != 'E' && previous != 'p' && previous != 'P') {
+                    return;
+                }
+            } else if (!Character.isLetterOrDigit(c) && c != '_' && c != '.') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    // Unterminated literals stop at the end of the line, as javac would report them
+    private void scanQuoted(char quote) {
+        position++;
+        while (position < length) {
+            char c = source.charAt(position);
+            if (c == '\\') {
+                position += 2;
+            } else if (c == quote) {
+                position++;
+                return;
+            } else if (c == '\n') {
+                return;
+            } else {
+                position++;
+            }
+        }
+        position = Math.min(position, length);
+    }
+
+    private void scanTextBlock() {
+        position += 3;
+        while (position < length) {
+            char c = source.charAt(position);
+            if (c == '\\') {
+                // An escaped newline still ends a source line
+                markContent();
+                if (position + 1 < length && source.charAt(position + 1) == '\n') {
+                    line++;
+                }
+                position += 2;
+                continue;
+            }
+            if (c == '\n') {
+                line++;
+            } else if (!Character.isWhitespace(c)) {
+                markContent();
+            }
+            if (c == '"' && position + 2 < length && source.charAt(position + 1) == '"' && source.charAt(position + 2) == '"') {
+                position += 3;
+                return;
+            }
+            position++;
+        }
+        position = Math.min(position, length);
+    }
+
+    // Two-character operators the analyzers care about; '>' is never merged so nested generics close one at a time
+    private int operatorLength(char c) {
+        if (position + 1 >= length) {
+            return 1;
+        }
+        char n = source.charAt(position + 1);
+        switch (c) {
+            case '&':
+                return n == '&' || n == '=' ? 2 : 1;
+            case '|':
+                return n == '|' || n == '=' ? 2 : 1;
+            case '-':
+                return n == '>' || n == '-' || n == '=' ? 2 : 1;
+            case '+':
+                return n == '+' || n == '=' ? 2 : 1;
+            case ':':
+                return n == ':' ? 2 : 1;
+            case '=':
+            case '!':
+            case '<':
+            case '*':
+            case '/':
+            case '%':
+            case '^':
+                return n == '=' ? 2 : 1;
+            default:
+                return 1;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    static boolean regionEquals(CharSequence source, int start, int end, String text) {
+        if (end - start != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (source.charAt(start + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,130 @@
+package finalproject;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ROLE: Service.
+ * SourceProvider for a checked-out tree on disk: walks directories in parallel and reads files through memory maps.
+ * Paths are reported relative to the root with '/' separators so they look the same as GitHub paths.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class LocalSourceProvider implements SourceProvider {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LocalSourceProvider.class);
+
+    private final Path root;
+
+    public LocalSourceProvider(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String getLocation() {
+        return root.toString();
+    }
+
+    @Override
+    public List<SourceEntry> listSources() throws Exception {
+        if (!Files.isDirectory(root)) {
+            throw new IllegalArgumentException("Not a directory: " + root);
+        }
+        List<SourceEntry> entries = ForkJoinPool.commonPool().invoke(new WalkTask(root));
+        entries.sort(Comparator.comparing(SourceEntry::getPath));
+        LOG.info("Listed {} Java files under {}", entries.size(), root);
+        return entries;
+    }
+
+    @Override
+    public String read(SourceEntry entry) throws IOException {
+        try (FileChannel channel = FileChannel.open(root.resolve(entry.getPath()), StandardOpenOption.READ)) {
+            return StandardCharsets.UTF_8.decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())).toString();
+        }
+    }
+
+    private String relativePath(Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+
+    // Lists one directory and forks a subtask per subdirectory
+    private final class WalkTask extends RecursiveTask<List<SourceEntry>> {
+
+        private final Path directory;
+
+        private WalkTask(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected List<SourceEntry> compute() {
+            List<SourceEntry> found = new ArrayList<>();
+            List<WalkTask> subtasks = new ArrayList<>();
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(directory)) {
+                for (Path child : children) {
+                    // One unreadable entry is skipped on its own; its siblings are still listed
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = attributesOf(child);
+                    } catch (IOException ex) {
+                        LOG.warn("Skipping unreadable entry {}", child, ex);
+                        continue;
+                    }
+                    if (attributes == null) {
+                        continue;
+                    }
+                    String name = child.getFileName().toString();
+                    if (attributes.isDirectory()) {
+                        if (!name.startsWith(".")) {
+                            WalkTask subtask = new WalkTask(child);
+                            subtask.fork();
+                            subtasks.add(subtask);
+                        }
+                    } else if (attributes.isRegularFile() && name.endsWith(".java")) {
+                        String version = attributes.size() + "-" + attributes.lastModifiedTime().toMillis();
+                        found.add(new SourceEntry(relativePath(child), version));
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException ex) {
+                LOG.warn("Skipping unreadable directory {}", directory, ex);
+            }
+            for (WalkTask subtask : subtasks) {
+                found.addAll(subtask.join());
+            }
+            return found;
+        }
+
+        // Symlinked directories are never entered, so a link loop cannot recurse; symlinked files still count
+        private BasicFileAttributes attributesOf(Path child) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            if (!attributes.isSymbolicLink()) {
+                return attributes;
+            }
+            try {
+                BasicFileAttributes target = Files.readAttributes(child, BasicFileAttributes.class);
+                return target.isDirectory() ? null : target;
+            } catch (IOException ex) {
+                LOG.debug("Skipping dangling link {}", child);
+                return null;
+            }
+        }
+    }
+}
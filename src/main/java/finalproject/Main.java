@@ -25,7 +25,8 @@ public class Main extends JFrame {
         AnalysisTabs analysisTabs = new AnalysisTabs(bottomBar);
         menuBar = new MenuBar();
 
-        new Controller(searchBar, bottomBar, menuBar);
+        Controller controller = new Controller(searchBar, bottomBar, menuBar);
+        analysisTabs.getDiagramTab().setDiagramCache(controller.getDiagramCache());
 
         add(searchBar, BorderLayout.NORTH);
         JSplitPane centerSplit = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, fileBrowserPanel, analysisTabs);
@@ -1,12 +1,13 @@
 package finalproject;
 
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 
 /**
  * ROLE: View.
- * Application menu bar exposing menu items for open, reload, clear, about, and exit.
+ * Application menu bar exposing menu items for open, reload, clear, fetch mode, about, and exit.
  * Controller attaches listeners to these items to drive the rest of the app.
  *
  * @author Parker Jones
@@ -20,6 +21,7 @@ public class MenuBar extends JMenuBar {
     private final JMenuItem reloadItem;
     private final JMenuItem clearItem;
     private final JMenuItem aboutItem;
+    private final JCheckBoxMenuItem archiveFetchItem;
 
     public MenuBar() {
         JMenu fileMenu = new JMenu("File");
@@ -32,8 +34,11 @@ public class MenuBar extends JMenuBar {
         JMenu actionMenu = new JMenu("Action");
         reloadItem = new JMenuItem("Reload");
         clearItem = new JMenuItem("Clear");
+        archiveFetchItem = new JCheckBoxMenuItem("Fetch GitHub folders as one archive");
         actionMenu.add(reloadItem);
         actionMenu.add(clearItem);
+        actionMenu.addSeparator();
+        actionMenu.add(archiveFetchItem);
 
         JMenu helpMenu = new JMenu("Help");
         aboutItem = new JMenuItem("About");
@@ -63,4 +68,8 @@ public class MenuBar extends JMenuBar {
     public JMenuItem getAboutItem() {
         return aboutItem;
     }
+
+    public JCheckBoxMenuItem getArchiveFetchItem() {
+        return archiveFetchItem;
+    }
 }
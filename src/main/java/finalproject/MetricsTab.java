@@ -1,6 +1,7 @@
 package finalproject;
 
 import java.awt.Color;
+import java.awt.FlowLayout;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
@@ -10,12 +11,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import javax.swing.JCheckBox;
 import javax.swing.JPanel;
 
 /**
  * ROLE: View.
- * Draws the DIA scatter plot for analyzed files using abstractness vs. instability.
- * Listens to Blackboard DIA metrics and repaints when new results arrive.
+ * Draws the DIA scatter plot for analyzed files, or for packages, using abstractness vs. instability.
+ * Listens to Blackboard DIA metrics and repaints when new results arrive; a checkbox switches between the two views.
  *
  * @author Parker Jones
  * @author Ashley Aring
@@ -26,19 +28,27 @@ public class MetricsTab extends JPanel {
     private static final Color BACKGROUND = new Color(0xC9D9D6);
     private static final Color AXIS_COLOR = new Color(0x7A8E8C);
     private static final Color POINT_COLOR = new Color(0x2F2F2F);
+    private static final Color PACKAGE_COLOR = new Color(0x2F5F8A);
 
     private final Blackboard blackboard;
+    private final JCheckBox packageView = new JCheckBox("Packages");
     private List<DiaMetricsData> metrics = Collections.emptyList();
+    private List<PackageMetricsData> packageMetrics = Collections.emptyList();
 
     public MetricsTab() {
+        super(new FlowLayout(FlowLayout.RIGHT));
         blackboard = Blackboard.getInstance();
         setOpaque(true);
+        packageView.setOpaque(false);
+        packageView.addActionListener(e -> repaint());
+        add(packageView);
         blackboard.addMetricsListener(this::handleMetricsUpdate);
         handleMetricsUpdate();
     }
 
     private void handleMetricsUpdate() {
         metrics = new ArrayList<>(blackboard.getDiaMetrics());
+        packageMetrics = new ArrayList<>(blackboard.getPackageMetrics());
         repaint();
     }
 
@@ -63,6 +73,8 @@ public class MetricsTab extends JPanel {
 
         if (metrics.isEmpty()) {
             drawEmptyMessage(g2, width, height);
+        } else if (packageView.isSelected()) {
+            plotPackages(g2, padding, plotWidth, plotHeight, height);
         } else {
             plotPoints(g2, padding, plotWidth, plotHeight, height);
         }
@@ -110,6 +122,21 @@ public class MetricsTab extends JPanel {
         }
     }
 
+    // Area grows with the number of classes in the package
+    private void plotPackages(Graphics2D g2, int padding, int plotWidth, int plotHeight, int height) {
+        for (PackageMetricsData metric : packageMetrics) {
+            double instability = clamp(metric.getInstability());
+            double abstractness = clamp(metric.getAbstractness());
+            int x = padding + (int) Math.round(instability * plotWidth);
+            int y = height - padding - (int) Math.round(abstractness * plotHeight);
+            int radius = 4 + (int) Math.round(Math.sqrt(metric.getClassCount()));
+
+            g2.setColor(PACKAGE_COLOR);
+            g2.drawOval(x - radius, y - radius, radius * 2, radius * 2);
+            g2.drawString(metric.getSimpleName(), x + radius + 2, y - radius);
+        }
+    }
+
     private double clamp(double value) {
         if (value < 0) {
             return 0;
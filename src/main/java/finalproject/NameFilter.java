@@ -0,0 +1,68 @@
+package finalproject;
+
+/**
+ * ROLE: Data.
+ * Bloom filter over names, hashed exactly like String.hashCode so a name can be tested straight from a region of source text.
+ * ClassNameMatcher uses one to reject most identifiers; each ParsedSource keeps one instead of its text to remember which names it mentions.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class NameFilter {
+
+    private static final int BITS_PER_NAME = 10;
+    private static final int HASHES = 3;
+
+    private final long[] bits;
+    private final int mask;
+
+    // Sized for the expected number of distinct names (about 1% false positives)
+    public NameFilter(int expectedNames) {
+        int size = Math.max(64, Integer.highestOneBit(Math.max(1, expectedNames * BITS_PER_NAME) - 1) << 1);
+        this.bits = new long[size / 64];
+        this.mask = size - 1;
+    }
+
+    // Same value as text.subSequence(start, end).toString().hashCode()
+    public static int hash(CharSequence text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        return hash;
+    }
+
+    public void add(int hash) {
+        int h2 = secondaryHash(hash);
+        for (int k = 0; k < HASHES; k++) {
+            int bit = (hash + k * h2) & mask;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    public void add(String name) {
+        add(name.hashCode());
+    }
+
+    public boolean mightContain(int hash) {
+        int h2 = secondaryHash(hash);
+        for (int k = 0; k < HASHES; k++) {
+            int bit = (hash + k * h2) & mask;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean mightContain(String name) {
+        return mightContain(name.hashCode());
+    }
+
+    // Odd, so the k probes of double hashing never collapse onto one bit
+    private static int secondaryHash(int hash) {
+        int mixed = hash * 0x85EBCA6B;
+        return (mixed ^ (mixed >>> 15)) | 1;
+    }
+}
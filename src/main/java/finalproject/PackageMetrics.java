@@ -0,0 +1,148 @@
+package finalproject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * ROLE: Service.
+ * Rolls the class-level DependencyGraph up into package-level DIA metrics, counting afferent and efferent packages.
+ * Each package reduces the edges of its own classes independently, so ranges of packages are split across the common ForkJoin pool.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class PackageMetrics {
+
+    // Below this many edges a range of packages is reduced on the current thread
+    private static final int SEQUENTIAL_EDGES = 4096;
+
+    private final DependencyGraph graph;
+    private final List<String> packageNames = new ArrayList<>();
+    private final int[] packageOf;
+    // Classes of package p are members[memberOffsets[p] .. memberOffsets[p + 1] - 1]
+    private final int[] memberOffsets;
+    private final int[] members;
+    // Incoming plus outgoing edges of packages 0 .. p - 1, used to size the parallel split
+    private final long[] edgePrefix;
+    private final PackageMetricsData[] results;
+
+    private PackageMetrics(DependencyGraph graph) {
+        this.graph = graph;
+        int nodeCount = graph.getNodeCount();
+        Map<String, Integer> ids = new HashMap<>();
+        packageOf = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            String packageName = graph.getSource(node).packageName;
+            Integer id = ids.get(packageName);
+            if (id == null) {
+                id = packageNames.size();
+                ids.put(packageName, id);
+                packageNames.add(packageName);
+            }
+            packageOf[node] = id;
+        }
+
+        // Counting sort of nodes by package
+        int packageCount = packageNames.size();
+        memberOffsets = new int[packageCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            memberOffsets[packageOf[node] + 1]++;
+        }
+        for (int p = 0; p < packageCount; p++) {
+            memberOffsets[p + 1] += memberOffsets[p];
+        }
+        members = new int[nodeCount];
+        int[] next = Arrays.copyOf(memberOffsets, packageCount);
+        for (int node = 0; node < nodeCount; node++) {
+            members[next[packageOf[node]]++] = node;
+        }
+        edgePrefix = new long[packageCount + 1];
+        for (int p = 0; p < packageCount; p++) {
+            edgePrefix[p + 1] = edgePrefix[p];
+            for (int i = memberOffsets[p]; i < memberOffsets[p + 1]; i++) {
+                edgePrefix[p + 1] += graph.getOutDegree(members[i]) + graph.getInDegree(members[i]);
+            }
+        }
+        results = new PackageMetricsData[packageCount];
+    }
+
+    // One entry per package, in order of first appearance in the graph
+    public static List<PackageMetricsData> compute(DependencyGraph graph) {
+        PackageMetrics metrics = new PackageMetrics(graph);
+        if (metrics.results.length > 0) {
+            ForkJoinPool.commonPool().invoke(metrics.new ReduceTask(0, metrics.results.length));
+        }
+        return Arrays.asList(metrics.results);
+    }
+
+    // seen[q] == stamp marks package q as already counted for the package being reduced
+    private PackageMetricsData reduce(int p, int[] seen, int stamp) {
+        int abstractCount = 0;
+        int efferent = 0;
+        for (int i = memberOffsets[p]; i < memberOffsets[p + 1]; i++) {
+            int node = members[i];
+            ParsedSource file = graph.getSource(node);
+            if (file.isAbstract || file.isInterface) {
+                abstractCount++;
+            }
+            for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++) {
+                int q = packageOf[graph.getTarget(edge)];
+                if (q != p && seen[q] != stamp) {
+                    seen[q] = stamp;
+                    efferent++;
+                }
+            }
+        }
+        // Afferent packages use the other sign so one scratch array serves both passes
+        int afferent = 0;
+        for (int i = memberOffsets[p]; i < memberOffsets[p + 1]; i++) {
+            int node = members[i];
+            for (int index = graph.getIncomingStart(node); index < graph.getIncomingEnd(node); index++) {
+                int q = packageOf[graph.getIncomingSource(index)];
+                if (q != p && seen[q] != -stamp) {
+                    seen[q] = -stamp;
+                    afferent++;
+                }
+            }
+        }
+
+        int classCount = memberOffsets[p + 1] - memberOffsets[p];
+        double abstractness = (double) abstractCount / classCount;
+        double denominator = afferent + efferent;
+        double instability = denominator == 0 ? 0.0 : efferent / denominator;
+        double distance = Math.abs(abstractness + instability - 1.0);
+        return new PackageMetricsData(packageNames.get(p), classCount, abstractCount, abstractness, instability, distance,
+                afferent, efferent);
+    }
+
+    // Splits the package range in half until a range holds few enough edges to reduce directly
+    private final class ReduceTask extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+
+        private ReduceTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1 && edgePrefix[to] - edgePrefix[from] > SEQUENTIAL_EDGES) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ReduceTask(from, middle), new ReduceTask(middle, to));
+                return;
+            }
+            int[] seen = new int[results.length];
+            for (int p = from; p < to; p++) {
+                results[p] = reduce(p, seen, p + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package finalproject;
+
+/**
+ * ROLE: Data.
+ * Carries Martin's abstractness, instability, and distance for one package, with couplings counted between packages.
+ * Computed by PackageMetrics after the DIA step and rendered in MetricsTab's package view.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class PackageMetricsData {
+
+    private final String name;
+    private final int classCount;
+    private final int abstractCount;
+    private final double abstractness;
+    private final double instability;
+    private final double distance;
+    private final int afferent;
+    private final int efferent;
+
+    public PackageMetricsData(String name, int classCount, int abstractCount, double abstractness, double instability,
+                              double distance, int afferent, int efferent) {
+        this.name = name;
+        this.classCount = classCount;
+        this.abstractCount = abstractCount;
+        this.abstractness = abstractness;
+        this.instability = instability;
+        this.distance = distance;
+        this.afferent = afferent;
+        this.efferent = efferent;
+    }
+
+    // Package name; "" for the default package
+    public String getName() {
+        return name;
+    }
+
+    public int getClassCount() {
+        return classCount;
+    }
+
+    // Abstract classes and interfaces
+    public int getAbstractCount() {
+        return abstractCount;
+    }
+
+    public double getAbstractness() {
+        return abstractness;
+    }
+
+    public double getInstability() {
+        return instability;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    // Other packages with a class that depends on this one (Ca)
+    public int getAfferent() {
+        return afferent;
+    }
+
+    // Other packages this one's classes depend on (Ce)
+    public int getEfferent() {
+        return efferent;
+    }
+
+    public String getSimpleName() {
+        if (name.isEmpty()) {
+            return "(default)";
+        }
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
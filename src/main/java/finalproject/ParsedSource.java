@@ -1,12 +1,16 @@
 package finalproject;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * ROLE: Data.
- * Captures basic parse info (class name, relationships) for a Java source file.
- * Built in GitFetch and passed to UmlBuilder and DIA calculations to link classes.
+ * Captures basic parse info (class name, relationships) for a Java source file; the source text itself is not kept.
+ * Built per file by SourceAnalyzer; DependencyGraph turns the relation sets into the graph used by DIA and UML.
  *
  * @author Parker Jones
  * @author Ashley Aring
@@ -15,8 +19,14 @@ import java.util.Set;
 public class ParsedSource {
 
     final String path;
-    final String content;
     final String className;
+    String packageName = "";
+    String qualifiedName;
+    // Imports of repo class names (simple name -> qualified name) and on-demand import packages; SymbolIndex resolves with them
+    final Map<String, String> singleTypeImports = new HashMap<>();
+    final List<String> onDemandImports = new ArrayList<>();
+    // Type names as written (simple, or qualified when the source spells out the package), resolved when the graph is built
+    // Each file is filled by the one thread that analyzes it; SourceDownloader publishes it when its executor closes
     final Set<String> dependencies = new HashSet<>();
     final Set<String> associations = new HashSet<>();
     final Set<String> aggregations = new HashSet<>();
@@ -25,15 +35,16 @@ public class ParsedSource {
     String parentClass;
     boolean isInterface;
     boolean isAbstract;
-    int incomingCount;
+    // Capitalized identifiers the file uses, so a reload can tell which files might refer to a newly added class
+    NameFilter mentions;
 
-    public ParsedSource(String path, String content) {
+    public ParsedSource(String path) {
         this.path = path;
-        this.content = content;
         this.className = extractClassName(path);
+        this.qualifiedName = className;
     }
 
-    private static String extractClassName(String path) {
+    static String extractClassName(String path) {
         int slash = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
         String fileName = slash >= 0 ? path.substring(slash + 1) : path;
         int dot = fileName.lastIndexOf('.');
@@ -44,6 +55,15 @@ public class ParsedSource {
         return className;
     }
 
+    public String getPackageName() {
+        return packageName;
+    }
+
+    // Package-qualified class name; equals the class name in the default package
+    public String getQualifiedName() {
+        return qualifiedName;
+    }
+
     public boolean isInterface() {
         return isInterface;
     }
@@ -76,16 +96,8 @@ public class ParsedSource {
         return compositions;
     }
 
-    public Set<String> allOutgoing() {
-        Set<String> all = new HashSet<>();
-        all.addAll(dependencies);
-        all.addAll(associations);
-        all.addAll(aggregations);
-        all.addAll(compositions);
-        if (parentClass != null) {
-            all.add(parentClass);
-        }
-        all.addAll(implementedInterfaces);
-        return all;
+    // False means the file certainly never names the class; true may be a false positive
+    public boolean mightMention(String className) {
+        return mentions == null || mentions.mightContain(className);
     }
 }
@@ -0,0 +1,278 @@
+package finalproject;
+
+import java.util.Arrays;
+
+/**
+ * ROLE: Service.
+ * Answers transitive "what does X depend on" and "what depends on X" queries from interval labels over the SCC condensation.
+ * Built once per analysis from the graph and its StronglyConnectedComponents; a query is a binary search or a walk over a few intervals.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class ReachabilityIndex {
+
+    private final DependencyGraph graph;
+    private final StronglyConnectedComponents components;
+    // Classes of component c are members[memberOffsets[c] .. memberOffsets[c + 1] - 1]
+    private final int[] memberOffsets;
+    private final int[] members;
+    private final Labels dependencies;
+    private final Labels dependents;
+
+    public ReachabilityIndex(DependencyGraph graph, StronglyConnectedComponents components) {
+        this.graph = graph;
+        this.components = components;
+        int componentCount = components.getComponentCount();
+        memberOffsets = new int[componentCount + 1];
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            memberOffsets[components.getComponent(node) + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        members = new int[graph.getNodeCount()];
+        int[] next = Arrays.copyOf(memberOffsets, componentCount);
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            members[next[components.getComponent(node)]++] = node;
+        }
+
+        // Condensation edges in both directions, one per component pair
+        int[] seen = new int[componentCount];
+        Arrays.fill(seen, -1);
+        int[] forwardCounts = new int[componentCount + 1];
+        int[] backwardCounts = new int[componentCount + 1];
+        int[] pairs = new int[16];
+        int pairCount = 0;
+        for (int c = 0; c < componentCount; c++) {
+            for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+                int node = members[i];
+                for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++) {
+                    int d = components.getComponent(graph.getTarget(edge));
+                    if (d == c || seen[d] == c) {
+                        continue;
+                    }
+                    seen[d] = c;
+                    if (pairCount * 2 + 2 > pairs.length) {
+                        pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                    }
+                    pairs[pairCount * 2] = c;
+                    pairs[pairCount * 2 + 1] = d;
+                    pairCount++;
+                    forwardCounts[c + 1]++;
+                    backwardCounts[d + 1]++;
+                }
+            }
+        }
+        dependencies = new Labels(componentCount, pairs, pairCount, forwardCounts, 0);
+        dependents = new Labels(componentCount, pairs, pairCount, backwardCounts, 1);
+    }
+
+    public DependencyGraph getGraph() {
+        return graph;
+    }
+
+    public StronglyConnectedComponents getComponents() {
+        return components;
+    }
+
+    // True when from reaches to through one or more edges; a class reaches itself only through a cycle, and that is not counted
+    public boolean dependsOn(int from, int to) {
+        return from != to && dependencies.reaches(components.getComponent(from), components.getComponent(to));
+    }
+
+    public int countDependencies(int node) {
+        return dependencies.count(components.getComponent(node)) - 1;
+    }
+
+    public int countDependents(int node) {
+        return dependents.count(components.getComponent(node)) - 1;
+    }
+
+    // Transitive dependencies of the node, excluding itself, in no particular order
+    public int[] dependenciesOf(int node) {
+        return dependencies.nodes(components.getComponent(node), node);
+    }
+
+    public int[] dependentsOf(int node) {
+        return dependents.nodes(components.getComponent(node), node);
+    }
+
+    // Union of two sorted (start, end) lists; overlapping or touching intervals are joined
+    private static int union(int[] a, int aLength, int[] b, int bFrom, int bTo, int[] out) {
+        int i = 0;
+        int j = bFrom;
+        int length = 0;
+        while (i < aLength || j < bTo) {
+            int start;
+            int end;
+            if (j >= bTo || (i < aLength && a[i] <= b[j])) {
+                start = a[i];
+                end = a[i + 1];
+                i += 2;
+            } else {
+                start = b[j];
+                end = b[j + 1];
+                j += 2;
+            }
+            if (length > 0 && start <= out[length - 1] + 1) {
+                out[length - 1] = Math.max(out[length - 1], end);
+            } else {
+                out[length++] = start;
+                out[length++] = end;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Interval labels for one direction of the condensation (a DAG).
+     * A DFS numbers components in post-order, so each DFS subtree is one range of numbers; a component's label is the merged
+     * ranges of everything it reaches. Layered code needs only a few intervals per component; long interleaved chains need more.
+     */
+    private final class Labels {
+
+        // Component -> post-order number, and back
+        private final int[] post;
+        private final int[] componentAt;
+        // Classes in the components numbered below p
+        private final int[] sizeBefore;
+        // Intervals of the component numbered p are the (start, end) pairs k = offsets[p] .. offsets[p + 1] - 1 of intervals
+        private final int[] offsets;
+        private int[] intervals;
+
+        // pairs holds (from, to) condensation edges; side 0 follows them forward, side 1 backward
+        private Labels(int componentCount, int[] pairs, int pairCount, int[] counts, int side) {
+            int[] adjacencyOffsets = counts;
+            for (int c = 0; c < componentCount; c++) {
+                adjacencyOffsets[c + 1] += adjacencyOffsets[c];
+            }
+            int[] adjacency = new int[pairCount];
+            int[] next = Arrays.copyOf(adjacencyOffsets, componentCount);
+            for (int i = 0; i < pairCount; i++) {
+                adjacency[next[pairs[i * 2 + side]]++] = pairs[i * 2 + 1 - side];
+            }
+
+            // Iterative DFS; first[c] is the post number the subtree of c starts at
+            post = new int[componentCount];
+            Arrays.fill(post, -1);
+            componentAt = new int[componentCount];
+            int[] first = new int[componentCount];
+            int[] nextChild = new int[componentCount];
+            int[] callStack = new int[componentCount];
+            boolean[] visited = new boolean[componentCount];
+            int counter = 0;
+            // Tarjan numbers sinks first, so forward roots are tried from the top and backward roots from the bottom
+            for (int i = 0; i < componentCount; i++) {
+                int root = side == 0 ? componentCount - 1 - i : i;
+                if (visited[root]) {
+                    continue;
+                }
+                int depth = 0;
+                visited[root] = true;
+                first[root] = counter;
+                nextChild[root] = adjacencyOffsets[root];
+                callStack[depth++] = root;
+                while (depth > 0) {
+                    int c = callStack[depth - 1];
+                    if (nextChild[c] < adjacencyOffsets[c + 1]) {
+                        int d = adjacency[nextChild[c]++];
+                        if (!visited[d]) {
+                            visited[d] = true;
+                            first[d] = counter;
+                            nextChild[d] = adjacencyOffsets[d];
+                            callStack[depth++] = d;
+                        }
+                        continue;
+                    }
+                    depth--;
+                    componentAt[counter] = c;
+                    post[c] = counter++;
+                }
+            }
+
+            sizeBefore = new int[componentCount + 1];
+            for (int p = 0; p < componentCount; p++) {
+                sizeBefore[p + 1] = sizeBefore[p] + components.getComponentSize(componentAt[p]);
+            }
+
+            // Every successor finishes before its predecessor, so labels are built in post order: the component's own subtree
+            // range merged with each successor's (already sorted) label
+            offsets = new int[componentCount + 1];
+            intervals = new int[Math.max(16, componentCount * 2)];
+            int[] label = new int[16];
+            int[] merged = new int[16];
+            int intervalCount = 0;
+            for (int p = 0; p < componentCount; p++) {
+                int c = componentAt[p];
+                label[0] = first[c];
+                label[1] = p;
+                int length = 2;
+                for (int i = adjacencyOffsets[c]; i < adjacencyOffsets[c + 1]; i++) {
+                    int d = post[adjacency[i]];
+                    int from = offsets[d] * 2;
+                    int to = offsets[d + 1] * 2;
+                    if (merged.length < length + to - from) {
+                        merged = new int[Math.max(merged.length * 2, length + to - from)];
+                    }
+                    int mergedLength = union(label, length, intervals, from, to, merged);
+                    int[] swap = label;
+                    label = merged;
+                    merged = swap;
+                    length = mergedLength;
+                }
+                if (intervalCount * 2 + length > intervals.length) {
+                    intervals = Arrays.copyOf(intervals, Math.max(intervals.length * 2, intervalCount * 2 + length));
+                }
+                System.arraycopy(label, 0, intervals, intervalCount * 2, length);
+                offsets[p] = intervalCount;
+                intervalCount += length / 2;
+                offsets[p + 1] = intervalCount;
+            }
+            intervals = Arrays.copyOf(intervals, intervalCount * 2);
+        }
+
+        private boolean reaches(int from, int to) {
+            int target = post[to];
+            int low = offsets[post[from]];
+            int high = offsets[post[from] + 1] - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (intervals[middle * 2 + 1] < target) {
+                    low = middle + 1;
+                } else if (intervals[middle * 2] > target) {
+                    high = middle - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Classes in every component c reaches, c included
+        private int count(int c) {
+            int total = 0;
+            for (int k = offsets[post[c]]; k < offsets[post[c] + 1]; k++) {
+                total += sizeBefore[intervals[k * 2 + 1] + 1] - sizeBefore[intervals[k * 2]];
+            }
+            return total;
+        }
+
+        private int[] nodes(int c, int exclude) {
+            int[] result = new int[count(c) - 1];
+            int size = 0;
+            for (int k = offsets[post[c]]; k < offsets[post[c] + 1]; k++) {
+                for (int p = intervals[k * 2]; p <= intervals[k * 2 + 1]; p++) {
+                    int d = componentAt[p];
+                    for (int i = memberOffsets[d]; i < memberOffsets[d + 1]; i++) {
+                        if (members[i] != exclude) {
+                            result[size++] = members[i];
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -26,7 +26,7 @@ public class SearchBar extends JPanel {
         setLayout(new BorderLayout(8, 0));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
-        add(new JLabel("Enter GitHub URL:"), BorderLayout.WEST);
+        add(new JLabel("Enter GitHub URL or path:"), BorderLayout.WEST);
 
         urlField = new JTextField();
         urlField.setPreferredSize(new Dimension(400, 28));
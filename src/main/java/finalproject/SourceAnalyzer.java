@@ -0,0 +1,321 @@
+package finalproject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ROLE: Service.
+ * Per-file analysis step: line count, method complexity, type declaration flags, and relations to other repo classes.
+ * GitFetch runs it on each file as soon as it is downloaded; only the repo class names are shared between files.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class SourceAnalyzer {
+
+    /**
+     * Grid data and parse info produced for one file.
+     */
+    public static final class FileResult {
+        private final GridFileData gridData;
+        private final ParsedSource source;
+
+        FileResult(GridFileData gridData, ParsedSource source) {
+            this.gridData = gridData;
+            this.source = source;
+        }
+
+        public GridFileData getGridData() {
+            return gridData;
+        }
+
+        public ParsedSource getSource() {
+            return source;
+        }
+    }
+
+    private final Set<String> repoClasses;
+    private final ClassNameMatcher classMatcher;
+
+    public SourceAnalyzer(Set<String> repoClasses) {
+        this.repoClasses = repoClasses;
+        this.classMatcher = new ClassNameMatcher(repoClasses);
+    }
+
+    // Class names are derived from file names, so the repo class set is known from the listing alone
+    public static Set<String> classNamesOf(List<String> paths) {
+        Set<String> names = new HashSet<>();
+        for (String path : paths) {
+            names.add(ParsedSource.extractClassName(path));
+        }
+        return names;
+    }
+
+    public static List<String> javaPaths(List<String> paths) {
+        List<String> javaPaths = new ArrayList<>();
+        for (String path : paths) {
+            if (path.endsWith(".java")) {
+                javaPaths.add(path);
+            }
+        }
+        return javaPaths;
+    }
+
+    public FileResult analyze(String path, String content) {
+        ParsedSource source = new ParsedSource(path);
+        JavaLexer.Tokens tokens = JavaLexer.tokenize(content);
+        DeclarationScanner.Result scan = DeclarationScanner.scan(tokens);
+        List<DeclarationScanner.TypeDeclaration> declarations = scan.getTypes();
+        applyDeclaration(source, DeclarationScanner.primary(declarations, source.className));
+        analyzeRelations(source, tokens, nestedTypeNames(declarations));
+        return new FileResult(gridData(path, tokens, scan), source);
+    }
+
+    // Grid data: non-blank lines from the lexer, decision points and per-method complexity from the declaration scan
+    private static GridFileData gridData(String path, JavaLexer.Tokens tokens, DeclarationScanner.Result scan) {
+        List<GridFileData.MethodComplexity> methods = new ArrayList<>(scan.getMethods().size());
+        for (DeclarationScanner.MethodDeclaration method : scan.getMethods()) {
+            String owner = method.getOwner() == null ? "" : method.getOwner().getName() + '.';
+            methods.add(new GridFileData.MethodComplexity(owner + method.getName(), method.getLine(), method.getComplexity()));
+        }
+        return new GridFileData(path, tokens.getNonBlankLines(), scan.getDecisionPoints(), methods);
+    }
+
+    // Type flags and supertypes from the file's own declaration header; only repo classes become edges
+    private void applyDeclaration(ParsedSource file, DeclarationScanner.TypeDeclaration declaration) {
+        if (declaration == null) {
+            return;
+        }
+        DeclarationScanner.Kind kind = declaration.getKind();
+        file.isInterface = kind == DeclarationScanner.Kind.INTERFACE || kind == DeclarationScanner.Kind.ANNOTATION;
+        file.isAbstract = kind == DeclarationScanner.Kind.CLASS && declaration.isAbstract();
+        String parent = declaration.getSuperclass();
+        if (parent != null && repoClasses.contains(parent)) {
+            file.parentClass = parent;
+        }
+        for (String iface : declaration.getInterfaces()) {
+            if (repoClasses.contains(iface)) {
+                file.implementedInterfaces.add(iface);
+            }
+        }
+    }
+
+    // Types declared inside this file shadow same-named repo classes
+    private static Set<String> nestedTypeNames(List<DeclarationScanner.TypeDeclaration> declarations) {
+        Set<String> names = new HashSet<>();
+        for (DeclarationScanner.TypeDeclaration declaration : declarations) {
+            if (!declaration.isTopLevel()) {
+                names.add(declaration.getName());
+            }
+        }
+        return names;
+    }
+
+    // Classifies each reference to another repo class from the token stream; comments and literals never match
+    private void analyzeRelations(ParsedSource file, JavaLexer.Tokens tokens, Set<String> nestedTypes) {
+        CharSequence source = tokens.getSource();
+        int braceDepth = 0;
+        int parenDepth = 0;
+        int[] mentioned = new int[64];
+        int mentionCount = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            int type = tokens.type(i);
+            if (type == JavaLexer.OPERATOR) {
+                if (tokens.isOperator(i, '{')) {
+                    braceDepth++;
+                } else if (tokens.isOperator(i, '}')) {
+                    braceDepth = Math.max(0, braceDepth - 1);
+                } else if (tokens.isOperator(i, '(')) {
+                    parenDepth++;
+                } else if (tokens.isOperator(i, ')')) {
+                    parenDepth = Math.max(0, parenDepth - 1);
+                }
+                continue;
+            }
+            if (type != JavaLexer.IDENTIFIER) {
+                continue;
+            }
+            // package and import lines name types without using them, but they decide what later names resolve to
+            if (braceDepth == 0 && tokens.is(i, "package")) {
+                i = readPackage(file, tokens, i + 1);
+                continue;
+            }
+            if (braceDepth == 0 && tokens.is(i, "import")) {
+                i = readImport(file, tokens, i + 1);
+                continue;
+            }
+            char first = tokens.charAt(tokens.start(i));
+            if (first < 'A' || first > 'Z') {
+                continue;
+            }
+            if (mentionCount == mentioned.length) {
+                mentioned = Arrays.copyOf(mentioned, mentionCount * 2);
+            }
+            mentioned[mentionCount++] = NameFilter.hash(source, tokens.start(i), tokens.end(i));
+            int id = classMatcher.match(source, tokens.start(i), tokens.end(i));
+            if (id == ClassNameMatcher.NO_MATCH) {
+                continue;
+            }
+            String candidate = qualifiedReference(tokens, i, classMatcher.nameOf(id));
+            if (candidate.indexOf('.') < 0 && (candidate.equals(file.className) || nestedTypes.contains(candidate))) {
+                continue;
+            }
+            if (isAfterNew(tokens, i)) {
+                file.compositions.add(candidate);
+            } else if (isDeclaredType(tokens, i)) {
+                file.aggregations.add(candidate);
+            } else if (isParameterOrSignature(tokens, i, parenDepth)) {
+                file.dependencies.add(candidate); // treat parameters as dashed dependency
+            } else {
+                file.associations.add(candidate); // default to solid association
+            }
+        }
+        file.mentions = mentionFilter(mentioned, mentionCount);
+    }
+
+    // package a.b.c;
+    private static int readPackage(ParsedSource file, JavaLexer.Tokens tokens, int i) {
+        StringBuilder name = new StringBuilder();
+        i = readDottedName(tokens, i, name);
+        if (name.length() > 0) {
+            file.packageName = name.toString();
+            file.qualifiedName = file.packageName + '.' + file.className;
+        }
+        return skipToSemicolon(tokens, i);
+    }
+
+    // import a.b.C; import a.b.*; static imports bring in members, not types, and are skipped
+    private int readImport(ParsedSource file, JavaLexer.Tokens tokens, int i) {
+        if (tokens.is(i, "static")) {
+            return skipToSemicolon(tokens, i);
+        }
+        StringBuilder name = new StringBuilder();
+        i = readDottedName(tokens, i, name);
+        if (tokens.isOperator(i, '*') && name.length() > 0) {
+            file.onDemandImports.add(name.substring(0, name.length() - 1));
+        } else if (name.length() > 0 && tokens.type(i - 1) == JavaLexer.IDENTIFIER
+                && classMatcher.match(tokens.getSource(), tokens.start(i - 1), tokens.end(i - 1)) != ClassNameMatcher.NO_MATCH) {
+            // Only names that could be repo classes matter; other imports never change what a name resolves to
+            file.singleTypeImports.put(tokens.text(i - 1), name.toString());
+        }
+        return skipToSemicolon(tokens, i);
+    }
+
+    // Appends a.b.c (or a.b. before a '*') and returns the index just past it
+    private static int readDottedName(JavaLexer.Tokens tokens, int i, StringBuilder name) {
+        while (tokens.type(i) == JavaLexer.IDENTIFIER) {
+            name.append(tokens.getSource(), tokens.start(i), tokens.end(i));
+            i++;
+            if (!tokens.isOperator(i, '.')) {
+                break;
+            }
+            name.append('.');
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipToSemicolon(JavaLexer.Tokens tokens, int i) {
+        while (i < tokens.size() && !tokens.isOperator(i, ';')) {
+            i++;
+        }
+        return i;
+    }
+
+    // a.b.C is kept qualified, since a chain of lowercase segments reads as a package; C and Outer.C keep the simple name
+    private static String qualifiedReference(JavaLexer.Tokens tokens, int index, String simpleName) {
+        int first = index;
+        while (tokens.isOperator(first - 1, '.') && tokens.type(first - 2) == JavaLexer.IDENTIFIER) {
+            first -= 2;
+        }
+        if (first == index) {
+            return simpleName;
+        }
+        for (int segment = first; segment < index; segment += 2) {
+            char c = tokens.charAt(tokens.start(segment));
+            if (c < 'a' || c > 'z') {
+                return simpleName;
+            }
+        }
+        StringBuilder name = new StringBuilder();
+        for (int segment = first; segment < index; segment += 2) {
+            name.append(tokens.getSource(), tokens.start(segment), tokens.end(segment)).append('.');
+        }
+        return name.append(simpleName).toString();
+    }
+
+    // Sized by distinct names, so a file that repeats a few types many times keeps a small filter
+    private static NameFilter mentionFilter(int[] hashes, int count) {
+        Arrays.sort(hashes, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || hashes[i] != hashes[i - 1]) {
+                distinct++;
+            }
+        }
+        NameFilter filter = new NameFilter(distinct);
+        for (int i = 0; i < count; i++) {
+            filter.add(hashes[i]);
+        }
+        return filter;
+    }
+
+    // new C(...), new pkg.C(...)
+    private static boolean isAfterNew(JavaLexer.Tokens tokens, int index) {
+        int previous = index - 1;
+        while (tokens.isOperator(previous, '.') && tokens.type(previous - 1) == JavaLexer.IDENTIFIER) {
+            previous -= 2;
+        }
+        return tokens.is(previous, "new");
+    }
+
+    // C name = ...; or C name; also List<C> name; (generic arguments and array brackets around C are skipped)
+    private static boolean isDeclaredType(JavaLexer.Tokens tokens, int index) {
+        int next = skipTypeSuffix(tokens, index + 1);
+        while (tokens.isOperator(next, '>')) {
+            next = skipTypeSuffix(tokens, next + 1);
+        }
+        return tokens.type(next) == JavaLexer.IDENTIFIER
+                && (tokens.isOperator(next + 1, '=') || tokens.isOperator(next + 1, ';'));
+    }
+
+    // f(C c), f(a, C c), C name(...), C(...)
+    private static boolean isParameterOrSignature(JavaLexer.Tokens tokens, int index, int parenDepth) {
+        if (parenDepth > 0 && (tokens.isOperator(index - 1, '(') || tokens.isOperator(index - 1, ','))) {
+            return true;
+        }
+        if (tokens.isOperator(index - 1, '(')) {
+            return true;
+        }
+        int next = skipTypeSuffix(tokens, index + 1);
+        return tokens.isOperator(next, '(')
+                || (tokens.type(next) == JavaLexer.IDENTIFIER && tokens.isOperator(next + 1, '('));
+    }
+
+    private static int skipTypeSuffix(JavaLexer.Tokens tokens, int index) {
+        if (tokens.isOperator(index, '<')) {
+            int depth = 0;
+            while (tokens.type(index) != JavaLexer.EOF) {
+                if (tokens.isOperator(index, '<')) {
+                    depth++;
+                } else if (tokens.isOperator(index, '>')) {
+                    depth--;
+                } else if (tokens.isOperator(index, ';') || tokens.isOperator(index, '{') || tokens.isOperator(index, '(')) {
+                    return index;
+                }
+                index++;
+                if (depth == 0) {
+                    break;
+                }
+            }
+        }
+        while (tokens.isOperator(index, '[') && tokens.isOperator(index + 1, ']')) {
+            index += 2;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,55 @@
+package finalproject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * ROLE: Data/Service.
+ * Persistent cache of downloaded Java sources keyed by owner/repo/ref/path plus the file's blob SHA.
+ * GitFetch checks it before downloading so unchanged files are served locally; backed by a DiskCache.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class SourceCache {
+
+    public static final String DIRECTORY_NAME = "sources";
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private final DiskCache store;
+
+    public SourceCache(DiskCache store) {
+        this.store = store;
+    }
+
+    public static SourceCache open(Path directory, long maxBytes) throws IOException {
+        return new SourceCache(new DiskCache(directory, maxBytes));
+    }
+
+    public String get(String owner, String repo, String ref, String path, String blobSha) {
+        return store.read(key(owner, repo, ref, path, blobSha), mapped -> StandardCharsets.UTF_8.decode(mapped).toString());
+    }
+
+    public void put(String owner, String repo, String ref, String path, String blobSha, String content) throws IOException {
+        store.write(key(owner, repo, ref, path, blobSha), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The blob SHA changes whenever the file content does, so a stale entry can never match
+    static String key(String owner, String repo, String ref, String path, String blobSha) {
+        return sha256(owner + '/' + repo + '/' + ref + '/' + path + '@' + blobSha);
+    }
+
+    static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 unavailable", ex);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package finalproject;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * ROLE: Service.
+ * Downloads many source files concurrently on virtual threads, capped by a configurable number of in-flight requests.
+ * Used by GitFetch for the download stage; each file is processed on its download thread as soon as it arrives, with processing capped at the core count.
+ * Results keep the listing order and failures are reported per file.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class SourceDownloader {
+
+    public static final int DEFAULT_CONCURRENCY = 8;
+
+    /**
+     * Fetches the content of one path; may block on network I/O.
+     */
+    @FunctionalInterface
+    public interface Fetcher {
+        String fetch(String path) throws Exception;
+    }
+
+    /**
+     * Turns downloaded content into a per-file result; runs on the download thread.
+     */
+    @FunctionalInterface
+    public interface Processor<T> {
+        T process(String path, String content) throws Exception;
+    }
+
+    /**
+     * Receives each file pushed by a ContentStream; may block while the processing pool is full.
+     */
+    @FunctionalInterface
+    public interface ContentSink {
+        void accept(String path, String content) throws InterruptedException;
+    }
+
+    /**
+     * A single-pass source (such as an archive) that pushes files in its own order.
+     */
+    @FunctionalInterface
+    public interface ContentStream {
+        void forEach(ContentSink sink) throws Exception;
+    }
+
+    /**
+     * Outcome for a single path: either the processed value or the error that stopped it.
+     */
+    public static final class Result<T> {
+        private final String path;
+        private final T value;
+        private final Exception error;
+
+        private Result(String path, T value, Exception error) {
+            this.path = path;
+            this.value = value;
+            this.error = error;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public Exception getError() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        static <T> Result<T> success(String path, T value) {
+            return new Result<>(path, value, null);
+        }
+
+        static <T> Result<T> failure(String path, Exception error) {
+            return new Result<>(path, null, error);
+        }
+    }
+
+    private final int maxConcurrency;
+    private final int parallelism;
+
+    public SourceDownloader(int maxConcurrency) {
+        this(maxConcurrency, Runtime.getRuntime().availableProcessors());
+    }
+
+    // maxConcurrency bounds fetches in flight; parallelism bounds files being analyzed at once
+    public SourceDownloader(int maxConcurrency, int parallelism) {
+        if (maxConcurrency < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1.");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.parallelism = parallelism;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    // Downloads every path and processes each file as soon as its content arrives; results are in input order
+    public <T> List<Result<T>> downloadAll(List<String> paths, Fetcher fetcher, Processor<T> processor)
+            throws InterruptedException {
+        List<Result<T>> results = new ArrayList<>(paths.size());
+        for (int i = 0; i < paths.size(); i++) {
+            results.add(null);
+        }
+        // Fetch slots are freed before processing, so slow network calls never idle the cores and CPU work never blocks a fetch;
+        // the in-flight cap bounds how many fetched files can wait for a core
+        Semaphore inFlight = new Semaphore(maxConcurrency + parallelism);
+        Semaphore fetchPermits = new Semaphore(maxConcurrency);
+        Semaphore processPermits = new Semaphore(parallelism);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < paths.size(); i++) {
+                int index = i;
+                String path = paths.get(i);
+                inFlight.acquire();
+                executor.submit(() -> {
+                    try {
+                        String content;
+                        fetchPermits.acquire();
+                        try {
+                            content = fetcher.fetch(path);
+                        } finally {
+                            fetchPermits.release();
+                        }
+                        results.set(index, Result.success(path, process(processPermits, processor, path, content)));
+                    } catch (Exception ex) {
+                        results.set(index, Result.failure(path, ex));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return results;
+    }
+
+    // Processes files pushed by a single-pass stream; paths the stream never delivers are reported as failures.
+    // A path delivered more than once (a duplicate archive entry) keeps the result of its last delivery.
+    public <T> List<Result<T>> processStream(List<String> paths, ContentStream stream, Processor<T> processor)
+            throws Exception {
+        List<Result<T>> results = new ArrayList<>(paths.size());
+        Map<String, Integer> indexByPath = new HashMap<>();
+        for (int i = 0; i < paths.size(); i++) {
+            results.add(null);
+            indexByPath.put(paths.get(i), i);
+        }
+        // Deliveries per index so far; guarded by results, like the result slots themselves
+        int[] deliveries = new int[paths.size()];
+        Semaphore permits = new Semaphore(parallelism);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            stream.forEach((path, content) -> {
+                Integer index = indexByPath.get(path);
+                if (index == null) {
+                    return;
+                }
+                int delivery;
+                synchronized (results) {
+                    delivery = ++deliveries[index];
+                }
+                // The stream's thread blocks here once every core is busy, which also bounds buffered content
+                permits.acquire();
+                executor.submit(() -> {
+                    Result<T> result;
+                    try {
+                        result = Result.success(path, processor.process(path, content));
+                    } catch (Exception ex) {
+                        result = Result.failure(path, ex);
+                    } finally {
+                        permits.release();
+                    }
+                    synchronized (results) {
+                        if (deliveries[index] == delivery) {
+                            results.set(index, result);
+                        }
+                    }
+                });
+            });
+        }
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, Result.failure(paths.get(i), new FileNotFoundException(paths.get(i))));
+            }
+        }
+        return results;
+    }
+
+    private static <T> T process(Semaphore permits, Processor<T> processor, String path, String content) throws Exception {
+        permits.acquire();
+        try {
+            return processor.process(path, content);
+        } finally {
+            permits.release();
+        }
+    }
+}
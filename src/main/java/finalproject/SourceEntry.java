@@ -0,0 +1,30 @@
+package finalproject;
+
+/**
+ * ROLE: Data.
+ * One Java source listed by a SourceProvider: its path plus a version stamp that changes when the content does.
+ * The version is a blob SHA for GitHub, size and modification time for local files, and CRC or size for archives.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class SourceEntry {
+
+    private final String path;
+    private final String version;
+
+    public SourceEntry(String path, String version) {
+        this.path = path;
+        this.version = version;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    // May be null when the provider cannot tell versions apart
+    public String getVersion() {
+        return version;
+    }
+}
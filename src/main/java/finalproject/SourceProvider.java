@@ -0,0 +1,43 @@
+package finalproject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ROLE: Service.
+ * Where the analysis pipeline gets its Java sources from: a GitHub folder, a local directory, or an archive.
+ * GitFetch lists entries once, then reads them all through readAll so each file is analyzed as soon as it arrives.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public interface SourceProvider {
+
+    // URL or path shown to the user and used to match a reload against its baseline
+    String getLocation();
+
+    // Lists the .java sources in a stable order
+    List<SourceEntry> listSources() throws Exception;
+
+    String read(SourceEntry entry) throws Exception;
+
+    // Reads every entry concurrently by default; providers backed by a single stream override this
+    default <T> List<SourceDownloader.Result<T>> readAll(List<SourceEntry> entries, SourceDownloader downloader,
+                                                         SourceDownloader.Processor<T> processor) throws Exception {
+        Map<String, SourceEntry> byPath = new HashMap<>();
+        List<String> paths = new ArrayList<>(entries.size());
+        for (SourceEntry entry : entries) {
+            byPath.put(entry.getPath(), entry);
+            paths.add(entry.getPath());
+        }
+        return downloader.downloadAll(paths, path -> read(byPath.get(path)), processor);
+    }
+
+    // Files served from a local cache instead of the network during the last readAll
+    default int getCacheHits() {
+        return 0;
+    }
+}
@@ -0,0 +1,64 @@
+package finalproject;
+
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import javiergs.tulip.GitHubHandler;
+
+/**
+ * ROLE: Service.
+ * Picks the SourceProvider for a user-supplied location, so the UI and BatchMain accept exactly the same inputs.
+ * Local folders and archives are read from disk; anything else must be a GitHub folder URL.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public final class SourceProviders {
+
+    private SourceProviders() {
+    }
+
+    // Throws IllegalArgumentException for input that is none of the above, IllegalStateException when no token is configured;
+    // the messages are meant for the user. tarball selects the single-request archive fetch for GitHub folders.
+    public static SourceProvider forLocation(String location, GitHubHandler gitHubHandler, GitHubClient gitHubClient,
+                                             SourceCache sourceCache, boolean tarball) {
+        if (location == null || location.isBlank()) {
+            throw new IllegalArgumentException("Incorrect URL, please enter a GitHub URL in full");
+        }
+        Path localPath = toLocalPath(location);
+        if (localPath != null && Files.isDirectory(localPath)) {
+            return new LocalSourceProvider(localPath);
+        }
+        if (localPath != null && Files.isRegularFile(localPath) && ArchiveSourceProvider.isArchive(localPath)) {
+            return new ArchiveSourceProvider(localPath);
+        }
+        // Spaces are only an error in a URL; a local path may contain them
+        if (location.contains(" ")) {
+            throw new IllegalArgumentException("Incorrect URL, please enter a GitHub URL in full");
+        }
+        if (!location.toLowerCase(Locale.ROOT).contains("github.com")) {
+            throw new IllegalArgumentException("Incorrect URL, please enter a GitHub URL, local folder, or archive path");
+        }
+        if (gitHubHandler == null) {
+            throw new IllegalStateException("Missing GH_ACCESS_TOKEN; add it to .env then retry.");
+        }
+        if (tarball) {
+            return new GitHubTarballSourceProvider(location, gitHubClient);
+        }
+        return new GitHubSourceProvider(location, gitHubHandler, gitHubClient, sourceCache);
+    }
+
+    private static Path toLocalPath(String input) {
+        if (input.startsWith("http://") || input.startsWith("https://")) {
+            return null;
+        }
+        try {
+            return Path.of(input);
+        } catch (InvalidPathException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package finalproject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * ROLE: Service.
+ * Splits a DependencyGraph into strongly connected components with Tarjan's algorithm, run on explicit stacks so depth is unbounded.
+ * Linear in nodes plus edges over the CSR arrays; components of two or more classes are the dependency cycles GitFetch publishes.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class StronglyConnectedComponents {
+
+    private final DependencyGraph graph;
+    // Components are numbered in the order Tarjan closes them, so an edge between two components always points to a lower id
+    private final int[] componentOf;
+    private final int[] sizes;
+    private final int componentCount;
+
+    public StronglyConnectedComponents(DependencyGraph graph) {
+        this.graph = graph;
+        int nodeCount = graph.getNodeCount();
+        componentOf = new int[nodeCount];
+        Arrays.fill(componentOf, -1);
+        int[] index = new int[nodeCount];
+        Arrays.fill(index, -1);
+        int[] lowLink = new int[nodeCount];
+        int[] nextEdge = new int[nodeCount];
+        // Tarjan's component stack, and the explicit call stack standing in for recursion
+        int[] stack = new int[nodeCount];
+        int[] callStack = new int[nodeCount];
+        int[] componentSizes = new int[nodeCount];
+        int stackSize = 0;
+        int counter = 0;
+        int components = 0;
+
+        for (int root = 0; root < nodeCount; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            index[root] = lowLink[root] = counter++;
+            nextEdge[root] = graph.getEdgeStart(root);
+            stack[stackSize++] = root;
+            callStack[depth++] = root;
+            while (depth > 0) {
+                int node = callStack[depth - 1];
+                if (nextEdge[node] < graph.getEdgeEnd(node)) {
+                    int target = graph.getTarget(nextEdge[node]++);
+                    if (index[target] < 0) {
+                        index[target] = lowLink[target] = counter++;
+                        nextEdge[target] = graph.getEdgeStart(target);
+                        stack[stackSize++] = target;
+                        callStack[depth++] = target;
+                    } else if (componentOf[target] < 0) {
+                        // Still on the component stack
+                        lowLink[node] = Math.min(lowLink[node], index[target]);
+                    }
+                    continue;
+                }
+
+                depth--;
+                if (lowLink[node] == index[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        componentOf[member] = components;
+                        componentSizes[components]++;
+                    } while (member != node);
+                    components++;
+                }
+                if (depth > 0) {
+                    int caller = callStack[depth - 1];
+                    lowLink[caller] = Math.min(lowLink[caller], lowLink[node]);
+                }
+            }
+        }
+        this.componentCount = components;
+        this.sizes = Arrays.copyOf(componentSizes, components);
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public int getComponent(int node) {
+        return componentOf[node];
+    }
+
+    public int getComponentSize(int component) {
+        return sizes[component];
+    }
+
+    // The graph has no self-edges, so only a component of two or more classes holds a cycle
+    public boolean isCyclic(int component) {
+        return sizes[component] > 1;
+    }
+
+    // Largest first; classes inside a group keep graph order
+    public List<CycleGroupData> cycleGroups() {
+        int[] slot = new int[componentCount];
+        List<List<Integer>> members = new ArrayList<>();
+        for (int component = 0; component < componentCount; component++) {
+            if (isCyclic(component)) {
+                slot[component] = members.size();
+                members.add(new ArrayList<>(sizes[component]));
+            }
+        }
+        for (int node = 0; node < componentOf.length; node++) {
+            if (isCyclic(componentOf[node])) {
+                members.get(slot[componentOf[node]]).add(node);
+            }
+        }
+        members.sort(Comparator.comparingInt((List<Integer> group) -> group.size()).reversed());
+
+        List<CycleGroupData> groups = new ArrayList<>(members.size());
+        for (List<Integer> group : members) {
+            List<String> paths = new ArrayList<>(group.size());
+            List<String> classNames = new ArrayList<>(group.size());
+            for (int node : group) {
+                paths.add(graph.getPath(node));
+                classNames.add(graph.getName(node));
+            }
+            groups.add(new CycleGroupData(groups.size() + 1, paths, classNames));
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,67 @@
+package finalproject;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ROLE: Service.
+ * Resolves the type names written in a file to analyzed files, keyed by fully qualified name and following Java's import rules.
+ * DependencyGraph builds one per analysis; every lookup is a hash probe, so resolution stays linear in the number of references.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class SymbolIndex {
+
+    public static final int UNRESOLVED = -1;
+
+    // Package -> simple name -> node; the default package is ""
+    private final Map<String, Map<String, Integer>> nodesByPackage = new HashMap<>();
+
+    // Node n is files.get(n); files declaring the same qualified name resolve to the last of them
+    public SymbolIndex(List<ParsedSource> files) {
+        for (int node = 0; node < files.size(); node++) {
+            ParsedSource file = files.get(node);
+            nodesByPackage.computeIfAbsent(file.packageName, key -> new HashMap<>()).put(file.className, node);
+        }
+    }
+
+    public int nodeOf(String qualifiedName) {
+        int dot = qualifiedName.lastIndexOf('.');
+        return dot < 0 ? lookup("", qualifiedName) : lookup(qualifiedName.substring(0, dot), qualifiedName.substring(dot + 1));
+    }
+
+    // A qualified name is taken as written; a simple name checks single-type imports, then the file's package, then on-demand imports
+    public int resolve(ParsedSource file, String name) {
+        if (name.indexOf('.') >= 0) {
+            return nodeOf(name);
+        }
+        String imported = file.singleTypeImports.get(name);
+        if (imported != null) {
+            // An explicit import shadows same-named repo classes even when it names a library type
+            return nodeOf(imported);
+        }
+        int node = lookup(file.packageName, name);
+        if (node != UNRESOLVED) {
+            return node;
+        }
+        for (String onDemand : file.onDemandImports) {
+            node = lookup(onDemand, name);
+            if (node != UNRESOLVED) {
+                return node;
+            }
+        }
+        return UNRESOLVED;
+    }
+
+    private int lookup(String packageName, String simpleName) {
+        Map<String, Integer> nodes = nodesByPackage.get(packageName);
+        if (nodes == null) {
+            return UNRESOLVED;
+        }
+        Integer node = nodes.get(simpleName);
+        return node == null ? UNRESOLVED : node;
+    }
+}
@@ -0,0 +1,181 @@
+package finalproject;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ROLE: Service.
+ * Minimal forward-only reader for (ustar/pax/GNU) tar streams, so archives can be scanned without extracting them.
+ * Used by ArchiveSourceProvider; entries whose data is not read are skipped without buffering.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+public class TarStreamReader implements Closeable {
+
+    private static final int BLOCK = 512;
+
+    /**
+     * Header of a regular file entry.
+     */
+    public static final class Entry {
+        private final String name;
+        private final long size;
+        private final long modifiedSeconds;
+
+        private Entry(String name, long size, long modifiedSeconds) {
+            this.name = name;
+            this.size = size;
+            this.modifiedSeconds = modifiedSeconds;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getModifiedSeconds() {
+            return modifiedSeconds;
+        }
+    }
+
+    private final InputStream in;
+    private final byte[] header = new byte[BLOCK];
+    private long remaining;
+    private long padding;
+    private boolean finished;
+
+    public TarStreamReader(InputStream in) {
+        this.in = in;
+    }
+
+    // Advances to the next regular file, or returns null at the end of the archive
+    public Entry next() throws IOException {
+        String longName = null;
+        while (!finished) {
+            skipRest();
+            if (!readBlock()) {
+                finished = true;
+                return null;
+            }
+            long size = parseNumber(header, 124, 12);
+            long modified = parseNumber(header, 136, 12);
+            char type = (char) header[156];
+            remaining = size;
+            padding = (BLOCK - size % BLOCK) % BLOCK;
+            if (type == 'L') {
+                longName = trimNul(new String(readContent(), StandardCharsets.UTF_8));
+            } else if (type == 'x') {
+                String paxPath = parsePaxPath(readContent());
+                if (paxPath != null) {
+                    longName = paxPath;
+                }
+            } else if (type == '0' || type == '\0' || type == '7') {
+                String name = longName != null ? longName : headerName();
+                return new Entry(name, size, modified);
+            } else {
+                longName = null;
+            }
+        }
+        return null;
+    }
+
+    // Reads the data of the entry last returned by next()
+    public byte[] readContent() throws IOException {
+        if (remaining > Integer.MAX_VALUE - 8) {
+            throw new IOException("Tar entry too large to read into memory");
+        }
+        byte[] data = in.readNBytes((int) remaining);
+        if (data.length != remaining) {
+            throw new EOFException("Truncated tar entry");
+        }
+        remaining = 0;
+        return data;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void skipRest() throws IOException {
+        in.skipNBytes(remaining + padding);
+        remaining = 0;
+        padding = 0;
+    }
+
+    private boolean readBlock() throws IOException {
+        int read = in.readNBytes(header, 0, BLOCK);
+        if (read < BLOCK) {
+            return false;
+        }
+        for (byte b : header) {
+            if (b != 0) {
+                return true;
+            }
+        }
+        return false; // a zero block marks the end of the archive
+    }
+
+    private String headerName() {
+        String name = field(0, 100);
+        boolean ustar = new String(header, 257, 5, StandardCharsets.US_ASCII).equals("ustar");
+        String prefix = ustar ? field(345, 155) : "";
+        return prefix.isEmpty() ? name : prefix + "/" + name;
+    }
+
+    private String field(int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    // PAX records look like "<length> <key>=<value>\n"
+    private static String parsePaxPath(byte[] data) {
+        String records = new String(data, StandardCharsets.UTF_8);
+        String path = null;
+        for (String record : records.split("\n")) {
+            int space = record.indexOf(' ');
+            int equals = record.indexOf('=');
+            if (space >= 0 && equals > space && record.substring(space + 1, equals).equals("path")) {
+                path = record.substring(equals + 1);
+            }
+        }
+        return path;
+    }
+
+    // Octal, or base-256 when the high bit of the first byte is set
+    private static long parseNumber(byte[] block, int offset, int length) {
+        if ((block[offset] & 0x80) != 0) {
+            long value = block[offset] & 0x7F;
+            for (int i = 1; i < length; i++) {
+                value = (value << 8) | (block[offset + i] & 0xFF);
+            }
+            return value;
+        }
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = block[i];
+            if (b >= '0' && b <= '7') {
+                value = value * 8 + (b - '0');
+            } else if (b == 0 || (b == ' ' && value > 0)) {
+                break;
+            }
+        }
+        return value;
+    }
+
+    private static String trimNul(String value) {
+        int nul = value.indexOf('\0');
+        return nul >= 0 ? value.substring(0, nul) : value;
+    }
+}
@@ -1,106 +1,155 @@
 package finalproject;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * ROLE: Data/Service.
  * Builds PlantUML text from parsed sources with precedence among implements, extends, and association types.
- * Consumes ParsedSource relationships produced by GitFetch and emits UmlDiagramData for DiagramTab.
+ * Reads the DependencyGraph built from ParsedSource relationships and streams the diagram to any Appendable, with dependency cycles in red.
  *
  * @author Parker Jones
  * @author Ashley Aring
- * @version 1.0
+ * @version 2.0
  */
 public class UmlBuilder {
 
-    public UmlDiagramData build(List<ParsedSource> files) {
-        StringBuilder builder = new StringBuilder();
-        builder.append("@startuml\n");
+    private static final String CYCLE_FILL = "#FFD6D6";
+    private static final String CYCLE_ARROW = "[#B22222]";
+    // Arrow per kind bit, lowest bit first: dependency, association, aggregation, composition, extends, implements
+    private static final String[] ARROWS = {" ..> ", " --> ", " o-- ", " *-- ", " --|> ", " ..|> "};
+    private static final String[] CYCLE_ARROWS = new String[ARROWS.length];
 
-        // Declare nodes
-        for (ParsedSource file : files) {
-            if (file.isInterface()) {
-                builder.append("interface ").append(file.getClassName()).append("\n");
-            } else if (file.isAbstract()) {
-                builder.append("abstract class ").append(file.getClassName()).append("\n");
-            } else {
-                builder.append("class ").append(file.getClassName()).append("\n");
-            }
+    static {
+        for (int i = 0; i < ARROWS.length; i++) {
+            CYCLE_ARROWS[i] = cycleArrow(ARROWS[i]);
         }
+    }
+
+    // Rough size of one declaration or relation line, to presize the in-memory text
+    private static final int LINE_ESTIMATE = 24;
 
-        Set<String> strongest = new HashSet<>();
+    // The whole diagram as text, for DiagramTab; batch output should stream with write() instead
+    public UmlDiagramData build(DependencyGraph graph, StronglyConnectedComponents components) {
+        StringBuilder builder = new StringBuilder((graph.getNodeCount() + graph.getEdgeCount()) * LINE_ESTIMATE);
+        try {
+            int relations = write(graph, components, builder);
+            return new UmlDiagramData(builder.toString(), relations);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex); // StringBuilder never throws
+        }
+    }
 
-        // In order of highest precedence to lowest:
-        // 1) implements (..|>)
-        for (ParsedSource file : files) {
-            for (String iface : file.getImplementedInterfaces()) {
-                String key = file.getClassName() + "->" + iface;
-                strongest.add(key);
-                builder.append(file.getClassName()).append(" ..|> ").append(iface).append("\n");
+    // Declarations, then one pass over the edges; classes in a cycle get a red fill and edges inside a cycle a red arrow.
+    // Returns the number of relations written.
+    public int write(DependencyGraph graph, StronglyConnectedComponents components, Appendable out) throws IOException {
+        out.append("@startuml\n");
+        String[] labels = labelsOf(graph);
+        // Files sharing a qualified name draw as one class: only the node that owns the name is declared, and the rows
+        // of the others are merged into its row with each target's kinds OR-ed together, so the strongest relation per
+        // pair is drawn once
+        int[] owner = new int[graph.getNodeCount()];
+        int[] nextDuplicate = new int[graph.getNodeCount()];
+        Arrays.fill(nextDuplicate, -1);
+        int[] firstDuplicate = new int[graph.getNodeCount()];
+        Arrays.fill(firstDuplicate, -1);
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            owner[node] = graph.nodeOf(graph.getName(node));
+            if (owner[node] != node) {
+                nextDuplicate[node] = firstDuplicate[owner[node]];
+                firstDuplicate[owner[node]] = node;
             }
         }
 
-        // 2) extends (--|>)
-        for (ParsedSource file : files) {
-            if (file.getParentClass() == null) {
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (owner[node] != node) {
                 continue;
             }
-            String key = file.getClassName() + "->" + file.getParentClass();
-            if (strongest.add(key)) {
-                builder.append(file.getClassName()).append(" --|> ").append(file.getParentClass()).append("\n");
+            ParsedSource file = graph.getSource(node);
+            if (file.isInterface()) {
+                out.append("interface ").append(labels[node]);
+            } else if (file.isAbstract()) {
+                out.append("abstract class ").append(labels[node]);
+            } else {
+                out.append("class ").append(labels[node]);
             }
-        }
-
-        // 3) composition (*--)
-        for (ParsedSource file : files) {
-            for (String target : file.getCompositions()) {
-                String key = file.getClassName() + "->" + target;
-                if (strongest.add(key)) {
-                    builder.append(file.getClassName()).append(" *-- ").append(target).append("\n");
-                }
+            if (components.isCyclic(components.getComponent(node))) {
+                out.append(' ').append(CYCLE_FILL);
             }
+            out.append('\n');
         }
 
-        // 4) aggregation (o--)
-        for (ParsedSource file : files) {
-            for (String target : file.getAggregations()) {
-                String key = file.getClassName() + "->" + target;
-                if (strongest.add(key)) {
-                    builder.append(file.getClassName()).append(" o-- ").append(target).append("\n");
+        int[] seenBy = new int[graph.getNodeCount()];
+        Arrays.fill(seenBy, -1);
+        byte[] pending = new byte[graph.getNodeCount()];
+        int[] targets = new int[16];
+
+        int relations = 0;
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (owner[node] != node) {
+                continue;
+            }
+            int count = 0;
+            for (int member = node; member >= 0; member = member == node ? firstDuplicate[node] : nextDuplicate[member]) {
+                for (int edge = graph.getEdgeStart(member); edge < graph.getEdgeEnd(member); edge++) {
+                    int target = graph.getTarget(edge);
+                    if (target == node) {
+                        continue;
+                    }
+                    if (seenBy[target] != node) {
+                        seenBy[target] = node;
+                        pending[target] = 0;
+                        if (count == targets.length) {
+                            targets = Arrays.copyOf(targets, count * 2);
+                        }
+                        targets[count++] = target;
+                    }
+                    pending[target] |= graph.getKinds(edge);
                 }
             }
+            for (int i = 0; i < count; i++) {
+                int target = targets[i];
+                int arrow = Integer.numberOfTrailingZeros(DependencyGraph.strongestKind(pending[target]));
+                boolean inCycle = components.getComponent(node) == components.getComponent(target);
+                out.append(labels[node]).append(inCycle ? CYCLE_ARROWS[arrow] : ARROWS[arrow]).append(labels[target]).append('\n');
+            }
+            relations += count;
         }
 
-        // 5) association (-->)
-        for (ParsedSource file : files) {
-            for (String target : file.getAssociations()) {
-                if (target.equals(file.getClassName())) {
-                    continue;
-                }
-                String key = file.getClassName() + "->" + target;
-                if (strongest.add(key)) {
-                    builder.append(file.getClassName()).append(" --> ").append(target).append("\n");
-                }
-            }
+        out.append("@enduml");
+        return relations;
+    }
+
+    // PlantUML takes a color after the first line character: " ..> " becomes " .[#B22222].> "
+    private static String cycleArrow(String arrow) {
+        int line = 1;
+        while (arrow.charAt(line) != '-' && arrow.charAt(line) != '.') {
+            line++;
         }
+        return arrow.substring(0, line + 1) + CYCLE_ARROW + arrow.substring(line + 1);
+    }
 
-        // 6) dependency (..>)
-        for (ParsedSource file : files) {
-            for (String target : file.getDependencies()) {
-                if (target.equals(file.getClassName())) {
-                    continue;
-                }
-                String key = file.getClassName() + "->" + target;
-                if (strongest.add(key)) {
-                    builder.append(file.getClassName()).append(" ..> ").append(target).append("\n");
-                }
+    // Simple class names, except where classes in different packages share one; those are drawn fully qualified
+    private static String[] labelsOf(DependencyGraph graph) {
+        Map<String, String> packageBySimpleName = new HashMap<>();
+        Set<String> ambiguous = new HashSet<>();
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            ParsedSource file = graph.getSource(node);
+            String previous = packageBySimpleName.putIfAbsent(file.getClassName(), file.getPackageName());
+            if (previous != null && !previous.equals(file.getPackageName())) {
+                ambiguous.add(file.getClassName());
             }
         }
-
-        builder.append("@enduml");
-        return new UmlDiagramData(builder.toString());
+        String[] labels = new String[graph.getNodeCount()];
+        for (int node = 0; node < labels.length; node++) {
+            ParsedSource file = graph.getSource(node);
+            labels[node] = ambiguous.contains(file.getClassName()) ? file.getQualifiedName() : file.getClassName();
+        }
+        return labels;
     }
-
 }
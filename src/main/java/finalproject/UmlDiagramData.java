@@ -12,12 +12,19 @@ package finalproject;
 public class UmlDiagramData {
 
     private final String plantUmlText;
+    private final int relationCount;
 
-    public UmlDiagramData(String plantUmlText) {
+    public UmlDiagramData(String plantUmlText, int relationCount) {
         this.plantUmlText = plantUmlText;
+        this.relationCount = relationCount;
     }
 
     public String getPlantUmlText() {
         return plantUmlText;
     }
+
+    // Arrows in the diagram, counted while it was written
+    public int getRelationCount() {
+        return relationCount;
+    }
 }
@@ -0,0 +1,77 @@
+package finalproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ROLE: Test.
+ * AdaptiveLimiter admission from virtual threads, as SourceDownloader uses it.
+ * Waiters must wake when a slot frees or a pause ends, and an interrupted waiter must leave without a slot.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+class AdaptiveLimiterTest {
+
+    @Test
+    void waitersTakeSlotsAsTheyFree() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 2);
+        limiter.acquire();
+        limiter.acquire();
+        CountDownLatch admitted = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++) {
+            Thread.ofVirtual().start(() -> {
+                try {
+                    limiter.acquire();
+                    admitted.countDown();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        assertFalse(admitted.await(100, TimeUnit.MILLISECONDS));
+        limiter.onFailure();
+        limiter.onSuccess(10);
+        assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void throttlingPausesEveryCaller() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 4);
+        limiter.acquire();
+        limiter.onThrottle(300);
+        assertEquals(2, limiter.getLimit());
+        long started = System.nanoTime();
+        limiter.acquire();
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) >= 250);
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void interruptedWaiterLeavesWithoutASlot() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 1);
+        limiter.acquire();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try {
+                limiter.acquire();
+            } catch (InterruptedException ex) {
+                interrupted.set(true);
+            }
+        });
+        Thread.sleep(100);
+        waiter.interrupt();
+        waiter.join(5000);
+        assertTrue(interrupted.get());
+        assertEquals(1, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,100 @@
+package finalproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ROLE: Test.
+ * ArchiveSourceProvider over local .zip and .tar.gz files: the listing, read() and the single-pass readAll must agree.
+ * Hidden folders are left out of all three, and a repeated tar entry name resolves to its last entry without an error.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+class ArchiveSourceProviderTest {
+
+    @TempDir
+    Path directory;
+
+    private static List<String> pathsOf(List<SourceEntry> entries) {
+        return entries.stream().map(SourceEntry::getPath).toList();
+    }
+
+    // readAll's contents in listing order; every listed entry must be delivered
+    private static List<String> readAll(SourceProvider provider, List<SourceEntry> entries, SourceDownloader.Processor<String> processor)
+            throws Exception {
+        List<String> contents = new ArrayList<>();
+        for (SourceDownloader.Result<String> result : provider.readAll(entries, new SourceDownloader(4, 4), processor)) {
+            assertTrue(result.isSuccess(), result.getPath());
+            contents.add(result.getValue());
+        }
+        return contents;
+    }
+
+    @Test
+    void zipListingAndStreamUseTheSameFilter() throws Exception {
+        Path archive = directory.resolve("repo.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(archive))) {
+            for (String name : List.of("p/", "p/A.java", ".hidden/H.java", "p/.git/G.java", "p/B.java", "README.md")) {
+                out.putNextEntry(new ZipEntry(name));
+                if (!name.endsWith("/")) {
+                    out.write(("// " + name + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+                out.closeEntry();
+            }
+        }
+        ArchiveSourceProvider provider = new ArchiveSourceProvider(archive);
+        List<SourceEntry> entries = provider.listSources();
+
+        assertEquals(List.of("p/A.java", "p/B.java"), pathsOf(entries));
+        assertEquals(List.of("// p/A.java\n", "// p/B.java\n"), readAll(provider, entries, (path, content) -> content));
+        assertEquals("// p/B.java\n", provider.read(entries.get(1)));
+    }
+
+    @Test
+    void repeatedTarNamesResolveToTheLastEntry() throws Exception {
+        Path archive = directory.resolve("repo.tar.gz");
+        Fixtures.writeTarball(archive, "", List.of(
+                Map.entry("p/A.java", "first"),
+                Map.entry("p/B.java", "only"),
+                Map.entry(".hidden/H.java", "hidden"),
+                Map.entry("p/A.java", "last")));
+        ArchiveSourceProvider provider = new ArchiveSourceProvider(archive);
+        List<SourceEntry> entries = provider.listSources();
+
+        assertEquals(List.of("p/A.java", "p/B.java"), pathsOf(entries));
+        assertEquals("last", provider.read(entries.get(0)));
+        // The first delivery is processed slowest, so it finishes after the last one and must still lose
+        assertEquals(List.of("last", "only"), readAll(provider, entries, (path, content) -> {
+            if (content.equals("first")) {
+                Thread.sleep(200);
+            }
+            return content;
+        }));
+    }
+
+    @Test
+    void missingEntryIsReportedAsNotFound() throws Exception {
+        Path archive = directory.resolve("repo.tar.gz");
+        Fixtures.writeTarball(archive, "", List.of(Map.entry("p/A.java", "class A { }")));
+        ArchiveSourceProvider provider = new ArchiveSourceProvider(archive);
+
+        List<SourceDownloader.Result<String>> results = provider.readAll(List.of(new SourceEntry("p/Gone.java", null)),
+                new SourceDownloader(2), (path, content) -> content);
+        assertTrue(results.get(0).getError() instanceof IOException);
+    }
+}
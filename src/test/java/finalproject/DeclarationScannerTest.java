@@ -0,0 +1,130 @@
+package finalproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ROLE: Test.
+ * Type headers and per-method cyclomatic complexity from DeclarationScanner.
+ * Each method's expected count is 1 plus its branches, written out beside the source.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+class DeclarationScannerTest {
+
+    private static DeclarationScanner.Result scan(String source) {
+        return DeclarationScanner.scan(JavaLexer.tokenize(source));
+    }
+
+    private static Map<String, Integer> complexityByMethod(DeclarationScanner.Result result) {
+        Map<String, Integer> complexity = new HashMap<>();
+        for (DeclarationScanner.MethodDeclaration method : result.getMethods()) {
+            complexity.put(method.getName(), method.getComplexity());
+        }
+        return complexity;
+    }
+
+    @Test
+    void readsTypeHeaders() {
+        DeclarationScanner.Result result = scan(String.join("\n",
+                "package p;",
+                "@Deprecated",
+                "public abstract class Shape<T extends Comparable<T>>",
+                "        extends Base implements Drawable, java.io.Serializable {",
+                "    interface Visitor extends Drawable {}",
+                "    enum Color { RED, GREEN }",
+                "    record Point(int x, int y) {}",
+                "}"));
+        List<DeclarationScanner.TypeDeclaration> types = result.getTypes();
+        assertEquals(4, types.size());
+
+        DeclarationScanner.TypeDeclaration shape = DeclarationScanner.primary(types, "Shape");
+        assertEquals(DeclarationScanner.Kind.CLASS, shape.getKind());
+        assertTrue(shape.isAbstract());
+        assertTrue(shape.isTopLevel());
+        assertEquals(3, shape.getLine());
+        assertEquals("Base", shape.getSuperclass());
+        assertEquals(List.of("Drawable", "Serializable"), shape.getInterfaces());
+        assertEquals(List.of("Comparable"), shape.getBounds());
+
+        DeclarationScanner.TypeDeclaration visitor = types.get(1);
+        assertEquals(DeclarationScanner.Kind.INTERFACE, visitor.getKind());
+        assertFalse(visitor.isTopLevel());
+        assertNull(visitor.getSuperclass());
+        assertEquals(List.of("Drawable"), visitor.getSuperTypes());
+        assertEquals(DeclarationScanner.Kind.ENUM, types.get(2).getKind());
+        assertEquals(DeclarationScanner.Kind.RECORD, types.get(3).getKind());
+    }
+
+    @Test
+    void countsDecisionPointsPerMethod() {
+        DeclarationScanner.Result result = scan(String.join("\n",
+                "class A {",
+                "    int straight() { return 1; }",
+                // if, else-if, &&, ||, ternary
+                "    int branches(int a, int b) {",
+                "        if (a > 0 && b > 0) { return 1; } else if (a < 0 || b < 0) { return -1; }",
+                "        return a == b ? 0 : 2;",
+                "    }",
+                // for, while, do-while (the trailing while is not counted again), catch
+                "    void loops(int[] xs) {",
+                "        for (int x : xs) { while (x > 0) { x--; } }",
+                "        do { xs = null; } while (xs != null);",
+                "        try { xs.clone(); } catch (RuntimeException ex) { }",
+                "    }",
+                // two case labels, default is not a branch; the lambda is one
+                "    Runnable cases(int k) {",
+                "        switch (k) { case 1: break; case 2: break; default: break; }",
+                "        return () -> { };",
+                "    }",
+                // switch rules: each case arrow is a case, not a lambda; wildcards are not ternaries
+                "    int rules(java.util.List<?> xs, int k) {",
+                "        return switch (k) { case 1 -> 10; case 2 -> 20; default -> 0; };",
+                "    }",
+                "}"));
+        Map<String, Integer> complexity = complexityByMethod(result);
+        assertEquals(1, complexity.get("straight"));
+        assertEquals(6, complexity.get("branches"));
+        assertEquals(5, complexity.get("loops"));
+        assertEquals(4, complexity.get("cases"));
+        assertEquals(3, complexity.get("rules"));
+        assertEquals(5 + 4 + 3 + 2, result.getDecisionPoints());
+    }
+
+    @Test
+    void attributesLambdaAndLocalClassBranchesToTheEnclosingMethod() {
+        DeclarationScanner.Result result = scan(String.join("\n",
+                "class A {",
+                "    void outer(boolean flag) {",
+                "        Runnable r = () -> { if (flag) { } };",
+                "        class Local { void inner() { if (flag) { } } }",
+                "    }",
+                "}"));
+        Map<String, Integer> complexity = complexityByMethod(result);
+        // lambda arrow, the lambda's if, and the local class's if
+        assertEquals(4, complexity.get("outer"));
+    }
+
+    @Test
+    void skipsInitializersAndFieldLambdas() {
+        DeclarationScanner.Result result = scan(String.join("\n",
+                "class A {",
+                "    static { if (true) { } }",
+                "    java.util.function.IntPredicate positive = x -> x > 0;",
+                "    A() { }",
+                "}"));
+        assertEquals(List.of("A"), result.getMethods().stream().map(DeclarationScanner.MethodDeclaration::getName).toList());
+        // the initializer's if and the field lambda still count toward the file
+        assertEquals(2, result.getDecisionPoints());
+    }
+}
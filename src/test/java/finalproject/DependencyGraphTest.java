@@ -0,0 +1,187 @@
+package finalproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ROLE: Test.
+ * Edge kinds and name resolution in DependencyGraph, including the collision fixture under src/test/resources.
+ * Also checks that a reload's update() yields exactly the graph a full build() would.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+class DependencyGraphTest {
+
+    private static final Path COLLISION_FIXTURE = Path.of("src", "test", "resources", "fixtures", "collision");
+
+    // Kind bits of the edge between two files, or 0 when there is none
+    private static byte kinds(DependencyGraph graph, String from, String to) {
+        int source = graph.nodeOfPath(from);
+        int target = graph.nodeOfPath(to);
+        for (int edge = graph.getEdgeStart(source); edge < graph.getEdgeEnd(source); edge++) {
+            if (graph.getTarget(edge) == target) {
+                return graph.getKinds(edge);
+            }
+        }
+        return 0;
+    }
+
+    private static Set<String> targetsOf(DependencyGraph graph, String from) {
+        Set<String> targets = new HashSet<>();
+        int source = graph.nodeOfPath(from);
+        for (int edge = graph.getEdgeStart(source); edge < graph.getEdgeEnd(source); edge++) {
+            targets.add(graph.getPath(graph.getTarget(edge)));
+        }
+        return targets;
+    }
+
+    @Test
+    void classifiesRelationKinds() {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("p/A.java", String.join("\n",
+                "package p;",
+                "public class A extends B implements I {",
+                "    private C held;",
+                "    private final D owned = new D();",
+                "    void use(E e) { F.helper(); }",
+                "}"));
+        for (String name : List.of("B", "C", "D", "E", "F")) {
+            sources.put("p/" + name + ".java", "package p;\npublic class " + name + " { static void helper() { } }\n");
+        }
+        sources.put("p/I.java", "package p;\npublic interface I { }\n");
+        DependencyGraph graph = Fixtures.graph(sources);
+
+        // Header names are also seen by the relation walk; the header kind is the strongest bit
+        assertEquals(DependencyGraph.EXTENDS, DependencyGraph.strongestKind(kinds(graph, "p/A.java", "p/B.java")));
+        assertEquals(DependencyGraph.IMPLEMENTS, DependencyGraph.strongestKind(kinds(graph, "p/A.java", "p/I.java")));
+        assertEquals(DependencyGraph.AGGREGATION, kinds(graph, "p/A.java", "p/C.java"));
+        assertEquals(DependencyGraph.AGGREGATION | DependencyGraph.COMPOSITION, kinds(graph, "p/A.java", "p/D.java"));
+        assertEquals(DependencyGraph.DEPENDENCY, kinds(graph, "p/A.java", "p/E.java"));
+        assertEquals(DependencyGraph.ASSOCIATION, kinds(graph, "p/A.java", "p/F.java"));
+        assertEquals(DependencyGraph.COMPOSITION, DependencyGraph.strongestKind(kinds(graph, "p/A.java", "p/D.java")));
+        assertEquals(6, graph.getEdgeCount());
+        assertEquals(1, graph.getInDegree(graph.nodeOfPath("p/D.java")));
+    }
+
+    @Test
+    void resolvesCollidingNamesLikeJavac() throws Exception {
+        LocalSourceProvider provider = new LocalSourceProvider(COLLISION_FIXTURE);
+        List<SourceEntry> entries = provider.listSources();
+        List<String> paths = new ArrayList<>();
+        for (SourceEntry entry : entries) {
+            paths.add(entry.getPath());
+        }
+        assertEquals(List.of("a/Foo.java", "b/Foo.java", "c/List.java", "c/User.java", "d/UsesUtilList.java"), paths);
+
+        SourceAnalyzer analyzer = new SourceAnalyzer(SourceAnalyzer.classNamesOf(paths));
+        List<ParsedSource> files = new ArrayList<>();
+        for (SourceEntry entry : entries) {
+            files.add(analyzer.analyze(entry.getPath(), provider.read(entry)).getSource());
+        }
+        DependencyGraph graph = DependencyGraph.build(files);
+
+        // The single-type import, the qualified name and the same-package class each pick a different file
+        assertEquals(Set.of("a/Foo.java", "b/Foo.java", "c/List.java"), targetsOf(graph, "c/User.java"));
+        // An import of java.util.List shadows the repo's List; the on-demand import still finds b.Foo
+        assertEquals(Set.of("b/Foo.java"), targetsOf(graph, "d/UsesUtilList.java"));
+        assertEquals(DependencyGraph.DEPENDENCY, kinds(graph, "d/UsesUtilList.java", "b/Foo.java"));
+        assertEquals(graph.nodeOfPath("a/Foo.java"), graph.nodeOf("a.Foo"));
+        assertEquals(-1, graph.nodeOf("java.util.List"));
+    }
+
+    @Test
+    void updateMatchesFullBuild() {
+        Random random = new Random(7);
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (int i = 0; i < 60; i++) {
+            sources.put(path(i), randomSource(random, i));
+        }
+        SourceAnalyzer analyzer = new SourceAnalyzer(SourceAnalyzer.classNamesOf(new ArrayList<>(sources.keySet())));
+        List<ParsedSource> files = Fixtures.analyze(sources);
+        DependencyGraph graph = DependencyGraph.build(files);
+        List<Integer> removed = new ArrayList<>();
+
+        for (int round = 0; round < 40; round++) {
+            // Re-analyze a few files, drop one and bring back another; untouched files keep their ParsedSource, as on a reload
+            Set<String> touched = new HashSet<>();
+            List<ParsedSource> next = new ArrayList<>(files);
+            if (!removed.isEmpty() && random.nextBoolean()) {
+                // An added class can shadow what an untouched file's name resolved to before
+                int index = removed.remove(random.nextInt(removed.size()));
+                int position = 0;
+                while (position < next.size() && classIndex(next.get(position).path) < index) {
+                    position++;
+                }
+                next.add(position, analyzer.analyze(path(index), randomSource(random, index)).getSource());
+                touched.add(path(index));
+            }
+            for (int change = 0; change < 3; change++) {
+                int index = random.nextInt(next.size());
+                String path = next.get(index).path;
+                next.set(index, analyzer.analyze(path, randomSource(random, classIndex(path))).getSource());
+                touched.add(path);
+            }
+            if (next.size() > 40) {
+                String path = next.remove(random.nextInt(next.size())).path;
+                touched.add(path);
+                removed.add(classIndex(path));
+            }
+            DependencyGraph updated = DependencyGraph.update(graph, next, touched);
+            DependencyGraph rebuilt = DependencyGraph.build(next);
+            assertEquals(rebuilt.getEdgeCount(), updated.getEdgeCount(), "edges after round " + round);
+            for (int node = 0; node < rebuilt.getNodeCount(); node++) {
+                assertEquals(rebuilt.getEdgeStart(node), updated.getEdgeStart(node), "row " + node + " after round " + round);
+            }
+            for (int edge = 0; edge < rebuilt.getEdgeCount(); edge++) {
+                assertEquals(rebuilt.getTarget(edge), updated.getTarget(edge));
+                assertEquals(rebuilt.getKinds(edge), updated.getKinds(edge));
+            }
+            files = next;
+            graph = updated;
+        }
+        assertTrue(graph.getEdgeCount() > 0);
+    }
+
+    // Sixty files over three packages but only twenty simple names, so every name exists in all three packages
+    private static String path(int index) {
+        return "p" + index % 3 + "/C" + index % 20 + ".java";
+    }
+
+    private static int classIndex(String path) {
+        for (int index = 0; ; index++) {
+            if (path(index).equals(path)) {
+                return index;
+            }
+        }
+    }
+
+    private static String randomSource(Random random, int index) {
+        String path = path(index);
+        String packageName = path.substring(0, 2);
+        StringBuilder source = new StringBuilder("package " + packageName + ";\n");
+        if (random.nextBoolean()) {
+            source.append("import p").append(random.nextInt(3)).append(".*;\n");
+        }
+        source.append("public class ").append(ParsedSource.extractClassName(path)).append(" {\n");
+        for (int field = random.nextInt(5); field > 0; field--) {
+            int target = random.nextInt(60);
+            String type = random.nextInt(4) == 0 ? path(target).substring(0, 2) + "." : "";
+            source.append("    ").append(type).append(ParsedSource.extractClassName(path(target))).append(" f").append(field)
+                    .append(";\n");
+        }
+        return source.append("}\n").toString();
+    }
+}
@@ -0,0 +1,80 @@
+package finalproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ROLE: Test.
+ * DiagramCache's two levels: the in-memory LRU of decoded images and the encoded PNGs in a DiskCache.
+ * A fresh cache over the same folder stands in for a restart, so hits there come from disk.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+class DiagramCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private static BufferedImage image(int rgb) {
+        BufferedImage image = new BufferedImage(3, 2, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(1, 1, rgb);
+        return image;
+    }
+
+    private static byte[] png(BufferedImage image) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void keysDependOnTextAndFormat() {
+        assertEquals(DiagramCache.key("@startuml\n@enduml", "png"), DiagramCache.key("@startuml\n@enduml", "png"));
+        assertNotEquals(DiagramCache.key("@startuml\n@enduml", "png"), DiagramCache.key("@startuml\n@enduml", "svg"));
+        assertNotEquals(DiagramCache.key("@startuml\nclass A\n@enduml", "png"), DiagramCache.key("@startuml\n@enduml", "png"));
+    }
+
+    @Test
+    void memoryHitsReturnTheSameImage() throws Exception {
+        DiagramCache cache = new DiagramCache(null, 2);
+        BufferedImage image = image(0x123456);
+        String key = DiagramCache.key("a", "png");
+        cache.put(key, png(image), image);
+
+        assertSame(image, cache.get(key));
+        assertNull(cache.get(DiagramCache.key("b", "png")));
+    }
+
+    @Test
+    void diskHitsDecodeTheStoredPng() throws Exception {
+        BufferedImage image = image(0x123456);
+        String key = DiagramCache.key("a", "png");
+        DiagramCache.open(directory, 1024 * 1024).put(key, png(image), image);
+
+        BufferedImage reloaded = DiagramCache.open(directory, 1024 * 1024).get(key);
+        assertNotNull(reloaded);
+        assertEquals(3, reloaded.getWidth());
+        assertEquals(0x123456, reloaded.getRGB(1, 1) & 0xFFFFFF);
+    }
+
+    @Test
+    void undecodableEntriesAreMisses() throws Exception {
+        String key = DiagramCache.key("a", "png");
+        new DiskCache(directory, 1024).write(key, new byte[] {1, 2, 3});
+
+        assertNull(DiagramCache.open(directory, 1024).get(key));
+    }
+}
@@ -0,0 +1,115 @@
+package finalproject;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ROLE: Test.
+ * DiskCache round trips, LRU eviction within the byte budget, and deletion deferred while an entry is being read.
+ * Keys are hex-like strings, as the real callers pass digests.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+class DiskCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private static byte[] bytes(ByteBuffer mapped) {
+        byte[] data = new byte[mapped.remaining()];
+        mapped.get(data);
+        return data;
+    }
+
+    private static byte[] filled(int size, int value) {
+        byte[] data = new byte[size];
+        Arrays.fill(data, (byte) value);
+        return data;
+    }
+
+    private long filesOnDisk() throws IOException {
+        try (Stream<Path> walk = Files.walk(directory)) {
+            return walk.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    void readsBackWhatWasWritten() throws Exception {
+        DiskCache cache = new DiskCache(directory, 1024);
+        cache.write("aa01", filled(10, 1));
+
+        assertArrayEquals(filled(10, 1), cache.read("aa01", DiskCacheTest::bytes));
+        assertNull(cache.read("bb02", DiskCacheTest::bytes));
+        // The decoder sees the mapping itself, not a heap copy
+        assertTrue(cache.read("aa01", ByteBuffer::isDirect));
+        assertEquals(10, cache.getTotalBytes());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyReadEntry() throws Exception {
+        DiskCache cache = new DiskCache(directory, 30);
+        cache.write("aa01", filled(10, 1));
+        cache.write("bb02", filled(10, 2));
+        cache.write("cc03", filled(10, 3));
+        cache.read("aa01", DiskCacheTest::bytes);
+        cache.write("dd04", filled(10, 4));
+
+        assertFalse(cache.contains("bb02"));
+        assertTrue(cache.contains("aa01"));
+        assertTrue(cache.contains("cc03"));
+        assertTrue(cache.contains("dd04"));
+        assertEquals(30, cache.getTotalBytes());
+        assertEquals(3, filesOnDisk());
+    }
+
+    @Test
+    void hitsDoNotWriteModificationTimes() throws Exception {
+        DiskCache cache = new DiskCache(directory, 1024);
+        cache.write("aa01", filled(10, 1));
+        Path file = directory.resolve("aa").resolve("aa01");
+        FileTime written = FileTime.fromMillis(1_700_000_000_000L);
+        Files.setLastModifiedTime(file, written);
+
+        for (int i = 0; i < 5; i++) {
+            cache.read("aa01", DiskCacheTest::bytes);
+        }
+        assertEquals(written, Files.getLastModifiedTime(file));
+    }
+
+    @Test
+    void entryEvictedDuringAReadIsDeletedAfterIt() throws Exception {
+        DiskCache cache = new DiskCache(directory, 20);
+        cache.write("aa01", filled(10, 1));
+        Path file = directory.resolve("aa").resolve("aa01");
+
+        byte[] read = cache.read("aa01", mapped -> {
+            cache.write("bb02", filled(10, 2));
+            cache.write("cc03", filled(10, 3));
+            // Evicted from the index, but the file stays while it is mapped here
+            assertFalse(cache.contains("aa01"));
+            assertTrue(Files.exists(file));
+            return bytes(mapped);
+        });
+        assertArrayEquals(filled(10, 1), read);
+
+        cache.write("dd04", filled(10, 4));
+        assertFalse(Files.exists(file));
+        assertEquals(2, filesOnDisk());
+    }
+}
@@ -0,0 +1,160 @@
+package finalproject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ROLE: Test support.
+ * Builds parse results, graphs and tarballs from in-memory sources, so tests state their input next to their expectations.
+ * Paths are analyzed in the map's iteration order, which becomes the graph's node order.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static List<ParsedSource> analyze(Map<String, String> sourcesByPath) {
+        SourceAnalyzer analyzer = new SourceAnalyzer(SourceAnalyzer.classNamesOf(new ArrayList<>(sourcesByPath.keySet())));
+        List<ParsedSource> files = new ArrayList<>();
+        for (Map.Entry<String, String> source : sourcesByPath.entrySet()) {
+            files.add(analyzer.analyze(source.getKey(), source.getValue()).getSource());
+        }
+        return files;
+    }
+
+    static DependencyGraph graph(Map<String, String> sourcesByPath) {
+        return DependencyGraph.build(analyze(sourcesByPath));
+    }
+
+    // Graph over synthetic files n0..n(count-1) with the given edges; each edge is {from, to}
+    static DependencyGraph graph(int count, int[][] edges) {
+        List<List<Integer>> targets = new ArrayList<>();
+        for (int node = 0; node < count; node++) {
+            targets.add(new ArrayList<>());
+        }
+        for (int[] edge : edges) {
+            targets.get(edge[0]).add(edge[1]);
+        }
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (int node = 0; node < count; node++) {
+            StringBuilder body = new StringBuilder("package p;\npublic class N" + node + " {\n");
+            for (int target : targets.get(node)) {
+                body.append("    N").append(target).append(" f").append(target).append(";\n");
+            }
+            sources.put("p/N" + node + ".java", body.append("}\n").toString());
+        }
+        return graph(sources);
+    }
+
+    // Random graph with roughly edgesPerNode edges out of each node; self edges are left out, as build() drops them
+    static int[][] randomEdges(Random random, int count, double edgesPerNode) {
+        List<int[]> edges = new ArrayList<>();
+        for (int from = 0; from < count; from++) {
+            for (int to = 0; to < count; to++) {
+                if (from != to && random.nextDouble() < edgesPerNode / count) {
+                    edges.add(new int[] {from, to});
+                }
+            }
+        }
+        return edges.toArray(new int[0][]);
+    }
+
+    // reaches[a][b] when b is reachable from a through one or more edges, by a breadth-first search per node
+    static boolean[][] closure(DependencyGraph graph) {
+        int count = graph.getNodeCount();
+        boolean[][] reaches = new boolean[count][count];
+        for (int start = 0; start < count; start++) {
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++) {
+                    int target = graph.getTarget(edge);
+                    if (!reaches[start][target]) {
+                        reaches[start][target] = true;
+                        queue.add(target);
+                    }
+                }
+            }
+        }
+        return reaches;
+    }
+
+    // Node of class p.N<index> in a graph built by graph(count, edges)
+    static int node(DependencyGraph graph, int index) {
+        return graph.nodeOfPath("p/N" + index + ".java");
+    }
+
+    // A .tar.gz laid out like GitHub's: every file under one wrapper directory, paths over 100 bytes as GNU long names
+    static void writeTarball(Path archive, String wrapper, Map<String, String> files) throws IOException {
+        writeTarball(archive, wrapper, new ArrayList<>(files.entrySet()));
+    }
+
+    // Entries in the given order, so a name may repeat; an empty wrapper writes them at the top level
+    static void writeTarball(Path archive, String wrapper, List<Map.Entry<String, String>> entries) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(archive))) {
+            writeTar(out, wrapper, entries);
+        }
+    }
+
+    private static void writeTar(OutputStream out, String wrapper, List<Map.Entry<String, String>> entries) throws IOException {
+        if (!wrapper.isEmpty()) {
+            writeEntry(out, wrapper, '5', new byte[0]);
+        }
+        for (Map.Entry<String, String> entry : entries) {
+            writeEntry(out, wrapper + entry.getKey(), '0', entry.getValue().getBytes(StandardCharsets.UTF_8));
+        }
+        out.write(new byte[1024]);
+    }
+
+    private static void writeEntry(OutputStream out, String name, char type, byte[] data) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > 100) {
+            ByteArrayOutputStream longName = new ByteArrayOutputStream();
+            longName.write(nameBytes);
+            longName.write(0);
+            writeEntry(out, "././@LongLink", 'L', longName.toByteArray());
+            nameBytes = name.substring(0, 100).getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] header = new byte[512];
+        System.arraycopy(nameBytes, 0, header, 0, nameBytes.length);
+        octal(header, 100, 8, 0644);
+        octal(header, 108, 8, 0);
+        octal(header, 116, 8, 0);
+        octal(header, 124, 12, data.length);
+        octal(header, 136, 12, 1_700_000_000L);
+        header[156] = (byte) type;
+        System.arraycopy("ustar\u000000".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xFF;
+        }
+        octal(header, 148, 7, checksum);
+        out.write(header);
+        out.write(data);
+        out.write(new byte[(512 - data.length % 512) % 512]);
+    }
+
+    private static void octal(byte[] header, int offset, int length, long value) {
+        String digits = String.format("%0" + (length - 1) + "o", value);
+        System.arraycopy(digits.getBytes(StandardCharsets.US_ASCII), 0, header, offset, length - 1);
+    }
+}
@@ -0,0 +1,160 @@
+package finalproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ROLE: Test.
+ * Headless GitFetch over a local directory: every incremental reload must match a full analysis of the same tree.
+ * Files are added, edited and deleted at random across packages that share class names; an unchanged tarball is never reopened.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+class GitFetchTest {
+
+    private static final String[] PACKAGES = {"p", "q", "r"};
+
+    @TempDir
+    Path root;
+
+    private final Random random = new Random(42);
+    // LocalSourceProvider versions files by size and modification time, so every write gets a later time
+    private long clock = 1_700_000_000_000L;
+    private int nextJobId = 1;
+
+    private AnalysisSnapshot analyze(AnalysisSnapshot baseline) throws Exception {
+        GitFetch fetch = new GitFetch(new LocalSourceProvider(root), 2);
+        fetch.setBaseline(baseline);
+        return fetch.analyze(new AnalysisJob(nextJobId++, root.toString(), () -> { }));
+    }
+
+    // Everything a reload must reproduce, as text so a mismatch shows where it is
+    private static String describe(AnalysisSnapshot snapshot) {
+        StringBuilder text = new StringBuilder();
+        for (DiaMetricsData metrics : snapshot.getDiaMetrics()) {
+            text.append(String.format("%s in=%d out=%d A=%.3f I=%.3f D=%.3f%n", metrics.getName(), metrics.getIncoming(),
+                    metrics.getOutgoing(), metrics.getAbstractness(), metrics.getInstability(), metrics.getDistance()));
+        }
+        for (GridFileData grid : snapshot.getGridFiles()) {
+            text.append(grid.getName()).append(" lines=").append(grid.getLineCount()).append(" cx=").append(grid.getComplexity()).append('\n');
+        }
+        for (PackageMetricsData metrics : snapshot.getPackageMetrics()) {
+            text.append(String.format("%s classes=%d Ca=%d Ce=%d%n", metrics.getName(), metrics.getClassCount(), metrics.getAfferent(),
+                    metrics.getEfferent()));
+        }
+        for (CycleGroupData cycle : snapshot.getCycleGroups()) {
+            text.append("cycle ").append(cycle.getPaths()).append('\n');
+        }
+        return text.toString();
+    }
+
+    @Test
+    void reloadsMatchFullAnalysis() throws Exception {
+        for (String packageName : PACKAGES) {
+            Files.createDirectories(root.resolve(packageName));
+        }
+        for (int i = 0; i < 30; i++) {
+            write(PACKAGES[i % 3] + "/C" + i + ".java");
+        }
+        AnalysisSnapshot current = analyze(null);
+        assertTrue(current.canDiff());
+
+        for (int round = 0; round < 25; round++) {
+            for (int change = 1 + random.nextInt(4); change > 0; change--) {
+                List<Path> existing = existingFiles();
+                int action = random.nextInt(3);
+                if (action == 0 && existing.size() > 10) {
+                    Files.delete(existing.get(random.nextInt(existing.size())));
+                } else if (action == 1) {
+                    write(PACKAGES[random.nextInt(3)] + "/C" + random.nextInt(36) + ".java");
+                } else {
+                    write(root.relativize(existing.get(random.nextInt(existing.size()))).toString().replace('\\', '/'));
+                }
+            }
+            AnalysisSnapshot reloaded = analyze(current);
+            assertEquals(describe(analyze(null)), describe(reloaded), "after round " + round);
+            current = reloaded;
+        }
+    }
+
+    @Test
+    void unchangedTarballReloadOpensNoArchive() throws Exception {
+        Map<String, String> files = new LinkedHashMap<>();
+        Map<String, String> blobShas = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            String path = "src/p/C" + i + ".java";
+            files.put(path, "package p;\npublic class C" + i + " { C" + (i + 1) % 10 + " next; }\n");
+            blobShas.put(path, GitHubTarballSourceProvider.gitBlobSha(files.get(path).getBytes(StandardCharsets.UTF_8)));
+        }
+        Path archive = root.resolve("repo.tar.gz");
+        Fixtures.writeTarball(archive, "owner-repo-0123abc/", files);
+        AtomicInteger opens = new AtomicInteger();
+        GitHubTarballSourceProvider provider = new GitHubTarballSourceProvider(archive.toString(), "src", () -> {
+            opens.incrementAndGet();
+            return Files.newInputStream(archive);
+        }, () -> blobShas);
+
+        GitFetch first = new GitFetch(provider, 2);
+        AnalysisSnapshot full = first.analyze(new AnalysisJob(nextJobId++, archive.toString(), () -> { }));
+        assertEquals(1, opens.get());
+
+        // Every blob SHA matches the baseline, so there is nothing to stream
+        GitFetch reload = new GitFetch(provider, 2);
+        reload.setBaseline(full);
+        AnalysisSnapshot reloaded = reload.analyze(new AnalysisJob(nextJobId++, archive.toString(), () -> { }));
+        assertEquals(1, opens.get());
+        assertEquals(describe(full), describe(reloaded));
+    }
+
+    private List<Path> existingFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String packageName : PACKAGES) {
+            try (var listing = Files.list(root.resolve(packageName))) {
+                listing.forEach(files::add);
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private void write(String path) throws IOException {
+        String packageName = path.substring(0, 1);
+        String className = path.substring(2, path.length() - ".java".length());
+        StringBuilder source = new StringBuilder("package " + packageName + ";\n");
+        if (random.nextBoolean()) {
+            source.append("import ").append(PACKAGES[random.nextInt(3)]).append(".*;\n");
+        }
+        if (random.nextBoolean()) {
+            source.append("import ").append(PACKAGES[random.nextInt(3)]).append(".C").append(random.nextInt(36)).append(";\n");
+        }
+        source.append(random.nextInt(4) == 0 ? "public abstract class " : "public class ").append(className).append(" {\n");
+        for (int field = random.nextInt(6); field > 0; field--) {
+            source.append("    C").append(random.nextInt(36)).append(" f").append(field).append(";\n");
+        }
+        if (random.nextBoolean()) {
+            source.append("    int branch(int x) { return x > 0 ? 1 : 0; }\n");
+        }
+        Path file = root.resolve(path);
+        Files.writeString(file, source.append("}\n").toString());
+        clock += 1000;
+        Files.setLastModifiedTime(file, FileTime.fromMillis(clock));
+    }
+}
@@ -0,0 +1,128 @@
+package finalproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ROLE: Test.
+ * GitHubClient against a local HTTP server that replays scripted responses, one per request.
+ * Every request, whether it succeeds, is throttled, or fails, must hand its limiter slot back.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+class GitHubClientTest {
+
+    private final Deque<Reply> replies = new ArrayDeque<>();
+    private HttpServer server;
+    private AdaptiveLimiter limiter;
+    private GitHubClient client;
+
+    private record Reply(int status, String header, String value, String body) {
+    }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::reply);
+        server.start();
+        // A single slot: a leaked one would block the next request forever
+        limiter = new AdaptiveLimiter(1, 1, 1);
+        client = new GitHubClient("http://127.0.0.1:" + server.getAddress().getPort(), null, limiter, 3);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private void reply(HttpExchange exchange) throws IOException {
+        Reply reply;
+        synchronized (replies) {
+            reply = replies.isEmpty() ? new Reply(500, null, null, "no scripted reply") : replies.poll();
+        }
+        byte[] body = reply.body().getBytes(StandardCharsets.UTF_8);
+        if (reply.header() != null) {
+            exchange.getResponseHeaders().add(reply.header(), reply.value());
+        }
+        exchange.sendResponseHeaders(reply.status(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void script(int status, String header, String value, String body) {
+        synchronized (replies) {
+            replies.add(new Reply(status, header, value, body));
+        }
+    }
+
+    @Test
+    void returnsContentAndFreesTheSlot() throws Exception {
+        script(200, null, null, "class A { }");
+
+        assertEquals("class A { }", client.getFileContent("o", "r", "p/A.java", "main"));
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, client.getRetryCount());
+    }
+
+    @Test
+    void retriesAfterThrottlingAndFreesEverySlot() throws Exception {
+        script(429, "Retry-After", "0", "slow down");
+        script(403, "X-RateLimit-Remaining", "0", "API rate limit exceeded");
+        script(200, null, null, "class A { }");
+
+        assertEquals("class A { }", client.getFileContent("o", "r", "p/A.java", "main"));
+        assertEquals(2, client.getThrottleCount());
+        assertEquals(2, client.getRetryCount());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void failedRequestsDoNotLeakSlots() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            script(404, null, null, "Not Found");
+            assertThrows(IOException.class, () -> client.getFileContent("o", "r", "p/Missing.java", "main"));
+            assertEquals(0, limiter.getInFlight());
+        }
+        script(200, null, null, "class A { }");
+        assertEquals("class A { }", client.getFileContent("o", "r", "p/A.java", "main"));
+    }
+
+    @Test
+    void undecodableBodiesDoNotLeakSlots() throws Exception {
+        // Claims gzip but is not: decoding fails after the slot was taken
+        for (int i = 0; i < 3; i++) {
+            script(404, "Content-Encoding", "gzip", "not gzip at all");
+            assertThrows(IOException.class, () -> client.openTarball("o", "r", "main"));
+            assertEquals(0, limiter.getInFlight());
+        }
+        script(200, null, null, "class A { }");
+        assertEquals("class A { }", client.getFileContent("o", "r", "p/A.java", "main"));
+    }
+
+    @Test
+    void givesUpOnServerErrorsAfterMaxAttempts() {
+        script(502, null, null, "bad gateway");
+        script(503, null, null, "unavailable");
+        script(500, null, null, "error");
+
+        assertThrows(IOException.class, () -> client.getFileContent("o", "r", "p/A.java", "main"));
+        assertEquals(2, client.getRetryCount());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,133 @@
+package finalproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ROLE: Test.
+ * GitHubTarballSourceProvider against a local .tar.gz laid out like GitHub's, in both of its modes.
+ * Without a lister the sources are staged in the spill file; with one they stream from a single decompression pass.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+class GitHubTarballSourceProviderTest {
+
+    private static final String LONG_FOLDER = "src/main/java/" + "deeply/".repeat(15);
+
+    @TempDir
+    Path directory;
+
+    private Path archive;
+    private final Map<String, String> files = new LinkedHashMap<>();
+
+    @BeforeEach
+    void writeArchive() throws IOException {
+        files.put("README.md", "# not java\n");
+        files.put("src/main/java/p/A.java", "package p;\npublic class A { B b; }\n");
+        files.put("src/main/java/p/B.java", "package p;\npublic class B { }\n");
+        files.put(LONG_FOLDER + "Deep.java", "package deeply;\npublic class Deep { }\n");
+        files.put("src/test/java/p/ATest.java", "package p;\nclass ATest { }\n");
+        archive = directory.resolve("repo.tar.gz");
+        Fixtures.writeTarball(archive, "owner-repo-0123abc/", files);
+    }
+
+    private GitHubTarballSourceProvider staged(String folder, AtomicInteger opens) {
+        return new GitHubTarballSourceProvider(archive.toString(), folder, () -> {
+            opens.incrementAndGet();
+            return Files.newInputStream(archive);
+        });
+    }
+
+    private GitHubTarballSourceProvider streamed(String folder, AtomicInteger opens, GitHubTarballSourceProvider.BlobLister lister) {
+        return new GitHubTarballSourceProvider(archive.toString(), folder, () -> {
+            opens.incrementAndGet();
+            return Files.newInputStream(archive);
+        }, lister);
+    }
+
+    private static List<String> read(SourceProvider provider, List<SourceEntry> entries) throws Exception {
+        List<String> contents = new ArrayList<>();
+        for (SourceDownloader.Result<String> result : provider.readAll(entries, new SourceDownloader(4), (path, content) -> content)) {
+            assertTrue(result.isSuccess(), result.getPath());
+            contents.add(result.getValue());
+        }
+        return contents;
+    }
+
+    @Test
+    void stagesJavaSourcesUnderTheFolder() throws Exception {
+        AtomicInteger opens = new AtomicInteger();
+        GitHubTarballSourceProvider provider = staged("/src/main/", opens);
+        List<SourceEntry> entries = provider.listSources();
+
+        List<String> paths = entries.stream().map(SourceEntry::getPath).toList();
+        assertEquals(List.of("src/main/java/deeply/" + "deeply/".repeat(14) + "Deep.java", "src/main/java/p/A.java",
+                "src/main/java/p/B.java"), paths);
+        assertEquals(files.get("src/main/java/p/B.java"), provider.read(entries.get(2)));
+        assertEquals(List.of(files.get(paths.get(0)), files.get(paths.get(1)), files.get(paths.get(2))), read(provider, entries));
+        assertEquals(1, opens.get());
+        // readAll hands the spill over, so a second read has nothing left
+        assertThrows(FileNotFoundException.class, () -> provider.read(entries.get(0)));
+    }
+
+    @Test
+    void versionsAreGitBlobShas() throws Exception {
+        // git hash-object of "hello\n"
+        assertEquals("ce013625030ba8dba906f756967f9e9ca394464a",
+                GitHubTarballSourceProvider.gitBlobSha("hello\n".getBytes(StandardCharsets.UTF_8)));
+        List<SourceEntry> entries = staged("src/main/java/p", new AtomicInteger()).listSources();
+        assertEquals(GitHubTarballSourceProvider.gitBlobSha(files.get("src/main/java/p/A.java").getBytes(StandardCharsets.UTF_8)),
+                entries.get(0).getVersion());
+    }
+
+    @Test
+    void streamsStraightIntoAnalysisWhenTheTreeIsListed() throws Exception {
+        Map<String, String> blobShas = new HashMap<>();
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            blobShas.put(file.getKey(), GitHubTarballSourceProvider.gitBlobSha(file.getValue().getBytes(StandardCharsets.UTF_8)));
+        }
+        AtomicInteger opens = new AtomicInteger();
+        GitHubTarballSourceProvider provider = streamed("src/main/java/p", opens, () -> blobShas);
+        List<SourceEntry> entries = provider.listSources();
+        // Listing came from the tree alone; the tarball is opened once, by readAll
+        assertEquals(0, opens.get());
+        assertEquals(List.of("src/main/java/p/A.java", "src/main/java/p/B.java"), entries.stream().map(SourceEntry::getPath).toList());
+        assertEquals(blobShas.get("src/main/java/p/A.java"), entries.get(0).getVersion());
+        assertEquals(List.of(files.get("src/main/java/p/B.java")), read(provider, entries.subList(1, 2)));
+        assertEquals(1, opens.get());
+
+        List<SourceEntry> stagedEntries = staged("src/main/java/p", new AtomicInteger()).listSources();
+        assertEquals(stagedEntries.stream().map(SourceEntry::getVersion).toList(), entries.stream().map(SourceEntry::getVersion).toList());
+    }
+
+    @Test
+    void fallsBackToStagingWhenTheTreeListingFails() throws Exception {
+        AtomicInteger opens = new AtomicInteger();
+        GitHubTarballSourceProvider provider = streamed("src/main/java/p", opens, () -> {
+            throw new IOException("Tree listing was truncated");
+        });
+        List<SourceEntry> entries = provider.listSources();
+        assertEquals(1, opens.get());
+        assertEquals(2, entries.size());
+        assertEquals(List.of(files.get("src/main/java/p/A.java"), files.get("src/main/java/p/B.java")), read(provider, entries));
+    }
+}
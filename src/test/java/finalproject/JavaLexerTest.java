@@ -0,0 +1,86 @@
+package finalproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ROLE: Test.
+ * Token types, line numbers and non-blank line counts from JavaLexer on small hand-written sources.
+ * Names hidden in comments, strings, text blocks and char literals must never surface as identifiers.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+class JavaLexerTest {
+
+    private static List<String> identifiers(String source) {
+        JavaLexer.Tokens tokens = JavaLexer.tokenize(source);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.type(i) == JavaLexer.IDENTIFIER) {
+                names.add(tokens.text(i));
+            }
+        }
+        return names;
+    }
+
+    @Test
+    void classifiesEachTokenType() {
+        JavaLexer.Tokens tokens = JavaLexer.tokenize("int x = 0x1F + 'c'; String s = \"Foo\";");
+        int[] expected = {
+                JavaLexer.IDENTIFIER, JavaLexer.IDENTIFIER, JavaLexer.OPERATOR, JavaLexer.NUMBER, JavaLexer.OPERATOR,
+                JavaLexer.CHAR, JavaLexer.OPERATOR, JavaLexer.IDENTIFIER, JavaLexer.IDENTIFIER, JavaLexer.OPERATOR,
+                JavaLexer.STRING, JavaLexer.OPERATOR
+        };
+        assertEquals(expected.length, tokens.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], tokens.type(i), "token " + i + " '" + tokens.text(i) + "'");
+        }
+        assertEquals("0x1F", tokens.text(3));
+        assertEquals("\"Foo\"", tokens.text(10));
+    }
+
+    @Test
+    void hidesNamesInCommentsAndLiterals() {
+        String source = String.join("\n",
+                "// Hidden in a line comment",
+                "/* Hidden in a block comment */",
+                "/** Hidden in a javadoc */",
+                "class Visible {",
+                "    String a = \"Hidden \\\" still hidden\";",
+                "    char b = '\\'';",
+                "    String c = \"\"\"",
+                "        Hidden in a text block \"\" \\\"\"\"",
+                "        \"\"\";",
+                "    Other d;",
+                "}");
+        assertEquals(List.of("class", "Visible", "String", "a", "char", "b", "String", "c", "Other", "d"), identifiers(source));
+    }
+
+    @Test
+    void tracksLinesAndSkipsBlankOnes() {
+        String source = "package p;\n\n/*\n\n*/\nclass A {\n\n    int x;\n}\n";
+        JavaLexer.Tokens tokens = JavaLexer.tokenize(source);
+        assertEquals(1, tokens.line(0));
+        int classToken = 3;
+        assertTrue(tokens.is(classToken, "class"));
+        assertEquals(6, tokens.line(classToken));
+        // package, the comment's two delimiter lines, class, int x, closing brace
+        assertEquals(6, tokens.getNonBlankLines());
+    }
+
+    @Test
+    void outOfRangeIndexesReadAsEof() {
+        JavaLexer.Tokens tokens = JavaLexer.tokenize("a");
+        assertEquals(JavaLexer.EOF, tokens.type(-1));
+        assertEquals(JavaLexer.EOF, tokens.type(1));
+        assertFalse(tokens.is(1, "a"));
+    }
+}
@@ -0,0 +1,61 @@
+package finalproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ROLE: Test.
+ * LocalSourceProvider's parallel walk over a temporary tree with hidden folders, link loops and broken links.
+ * Entries that cannot be followed are skipped one by one; everything next to them is still listed.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+class LocalSourceProviderTest {
+
+    @TempDir
+    Path root;
+
+    private List<String> listedPaths() throws Exception {
+        return new LocalSourceProvider(root).listSources().stream().map(SourceEntry::getPath).toList();
+    }
+
+    private void write(String path, String content) throws Exception {
+        Path file = root.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    @Test
+    void listsJavaFilesRelativeToTheRoot() throws Exception {
+        write("p/A.java", "package p;\npublic class A { }\n");
+        write("p/q/B.java", "package p.q;\npublic class B { }\n");
+        write("p/notes.txt", "not java");
+        write(".git/Hidden.java", "class Hidden { }");
+
+        assertEquals(List.of("p/A.java", "p/q/B.java"), listedPaths());
+        LocalSourceProvider provider = new LocalSourceProvider(root);
+        assertEquals("package p;\npublic class A { }\n", provider.read(provider.listSources().get(0)));
+    }
+
+    @Test
+    void skipsLinksItCannotFollowButKeepsTheirSiblings() throws Exception {
+        write("p/A.java", "package p;\npublic class A { }\n");
+        write("p/Z.java", "package p;\npublic class Z { }\n");
+        write("shared/S.java", "package shared;\npublic class S { }\n");
+        // A loop back to the root, a link to itself, a dangling link, and a linked file that does count
+        Files.createSymbolicLink(root.resolve("p/loop"), root);
+        Files.createSymbolicLink(root.resolve("p/Self.java"), root.resolve("p/Self.java"));
+        Files.createSymbolicLink(root.resolve("p/Gone.java"), root.resolve("p/Missing.java"));
+        Files.createSymbolicLink(root.resolve("p/Linked.java"), root.resolve("shared/S.java"));
+
+        assertEquals(List.of("p/A.java", "p/Linked.java", "p/Z.java", "shared/S.java"), listedPaths());
+    }
+}
@@ -0,0 +1,76 @@
+package finalproject;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ROLE: Test.
+ * Transitive dependency and dependent queries from ReachabilityIndex against a breadth-first closure.
+ * Random graphs mix cycles, shared descendants and isolated nodes, which exercise the interval merging.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+class ReachabilityIndexTest {
+
+    private static ReachabilityIndex index(DependencyGraph graph) {
+        return new ReachabilityIndex(graph, new StronglyConnectedComponents(graph));
+    }
+
+    private static int[] sorted(int[] nodes) {
+        int[] copy = nodes.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Test
+    void answersChainAndDiamondQueries() {
+        // 0 -> 1 -> 3, 0 -> 2 -> 3, 3 -> 4; 5 -> 6 -> 5 is a separate cycle
+        DependencyGraph graph = Fixtures.graph(7, new int[][] {{0, 1}, {0, 2}, {1, 3}, {2, 3}, {3, 4}, {5, 6}, {6, 5}});
+        ReachabilityIndex reachability = index(graph);
+        assertTrue(reachability.dependsOn(0, 4));
+        assertFalse(reachability.dependsOn(4, 0));
+        assertFalse(reachability.dependsOn(1, 2));
+        assertEquals(4, reachability.countDependencies(0));
+        assertEquals(4, reachability.countDependents(4));
+        assertArrayEquals(new int[] {3, 4}, sorted(reachability.dependenciesOf(1)));
+        assertArrayEquals(new int[] {0, 1, 2}, sorted(reachability.dependentsOf(3)));
+        // Within a cycle each node depends on the other, but never counts itself
+        assertTrue(reachability.dependsOn(5, 6));
+        assertFalse(reachability.dependsOn(5, 5));
+        assertArrayEquals(new int[] {6}, reachability.dependenciesOf(5));
+        assertEquals(1, reachability.countDependents(6));
+    }
+
+    @Test
+    void matchesBreadthFirstClosureOnRandomGraphs() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 25; trial++) {
+            int count = 2 + random.nextInt(60);
+            DependencyGraph graph = Fixtures.graph(count, Fixtures.randomEdges(random, count, 0.5 + 2 * random.nextDouble()));
+            ReachabilityIndex reachability = index(graph);
+            boolean[][] reaches = Fixtures.closure(graph);
+            for (int a = 0; a < count; a++) {
+                int from = a;
+                int[] expectedDependencies = IntStream.range(0, count).filter(b -> b != from && reaches[from][b]).toArray();
+                int[] expectedDependents = IntStream.range(0, count).filter(b -> b != from && reaches[b][from]).toArray();
+                assertArrayEquals(expectedDependencies, sorted(reachability.dependenciesOf(a)));
+                assertArrayEquals(expectedDependents, sorted(reachability.dependentsOf(a)));
+                assertEquals(expectedDependencies.length, reachability.countDependencies(a));
+                assertEquals(expectedDependents.length, reachability.countDependents(a));
+                for (int b = 0; b < count; b++) {
+                    assertEquals(a != b && reaches[a][b], reachability.dependsOn(a, b), "nodes " + a + ", " + b);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package finalproject;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ROLE: Test.
+ * The input rules the UI and BatchMain share: local folders, local archives, then GitHub folder URLs.
+ * No GitHub client is configured here, so GitHub input stops at the missing-token check.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+class SourceProvidersTest {
+
+    @TempDir
+    Path directory;
+
+    private static SourceProvider forLocation(String location) {
+        return SourceProviders.forLocation(location, null, null, null, false);
+    }
+
+    @Test
+    void readsLocalFoldersAndArchivesFromDisk() throws Exception {
+        Path folder = Files.createDirectories(directory.resolve("my project"));
+        Path archive = Files.createFile(directory.resolve("repo.tar.gz"));
+
+        assertTrue(forLocation(folder.toString()) instanceof LocalSourceProvider);
+        assertTrue(forLocation(archive.toString()) instanceof ArchiveSourceProvider);
+    }
+
+    @Test
+    void rejectsAnythingElse() throws Exception {
+        Path notes = Files.createFile(directory.resolve("notes.txt"));
+
+        assertThrows(IllegalArgumentException.class, () -> forLocation(" "));
+        assertThrows(IllegalArgumentException.class, () -> forLocation(notes.toString()));
+        assertThrows(IllegalArgumentException.class, () -> forLocation("https://example.com/owner/repo"));
+        assertThrows(IllegalArgumentException.class, () -> forLocation("https://github.com/owner/repo/tree/main/a folder"));
+        assertThrows(IllegalStateException.class, () -> forLocation("https://github.com/owner/repo/tree/main/src"));
+    }
+}
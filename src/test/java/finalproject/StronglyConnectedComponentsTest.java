@@ -0,0 +1,76 @@
+package finalproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ROLE: Test.
+ * Components from the iterative Tarjan pass against mutual reachability computed by brute force.
+ * A long cycle checks that deep graphs need no recursion.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+class StronglyConnectedComponentsTest {
+
+    @Test
+    void groupsCyclesAndOrdersThemLargestFirst() {
+        // 0 -> 1 -> 2 -> 0 and 3 <-> 4, joined by 2 -> 3; 5 stands alone
+        DependencyGraph graph = Fixtures.graph(6, new int[][] {{0, 1}, {1, 2}, {2, 0}, {2, 3}, {3, 4}, {4, 3}});
+        StronglyConnectedComponents components = new StronglyConnectedComponents(graph);
+        assertEquals(3, components.getComponentCount());
+
+        int big = components.getComponent(Fixtures.node(graph, 0));
+        assertEquals(big, components.getComponent(Fixtures.node(graph, 2)));
+        assertEquals(3, components.getComponentSize(big));
+        assertTrue(components.isCyclic(big));
+        assertFalse(components.isCyclic(components.getComponent(Fixtures.node(graph, 5))));
+        // Components close in order, so an edge between two of them points to the lower id
+        assertTrue(components.getComponent(Fixtures.node(graph, 3)) < big);
+
+        List<CycleGroupData> groups = components.cycleGroups();
+        assertEquals(2, groups.size());
+        assertEquals(List.of("p/N0.java", "p/N1.java", "p/N2.java"), groups.get(0).getPaths());
+        assertEquals(List.of("p.N3", "p.N4"), groups.get(1).getClassNames());
+    }
+
+    @Test
+    void matchesMutualReachabilityOnRandomGraphs() {
+        Random random = new Random(3);
+        for (int trial = 0; trial < 20; trial++) {
+            int count = 5 + random.nextInt(40);
+            DependencyGraph graph = Fixtures.graph(count, Fixtures.randomEdges(random, count, 1.0 + random.nextDouble()));
+            StronglyConnectedComponents components = new StronglyConnectedComponents(graph);
+            boolean[][] reaches = Fixtures.closure(graph);
+            for (int a = 0; a < count; a++) {
+                assertEquals(reaches[a][a], components.isCyclic(components.getComponent(a)), "cyclic " + a);
+                for (int b = 0; b < count; b++) {
+                    boolean together = a == b || (reaches[a][b] && reaches[b][a]);
+                    assertEquals(together, components.getComponent(a) == components.getComponent(b), "nodes " + a + ", " + b);
+                    if (reaches[a][b] && !together) {
+                        assertTrue(components.getComponent(a) > components.getComponent(b));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void handlesLongCyclesWithoutRecursion() {
+        int count = 5000;
+        int[][] edges = new int[count][];
+        for (int node = 0; node < count; node++) {
+            edges[node] = new int[] {node, (node + 1) % count};
+        }
+        StronglyConnectedComponents components = new StronglyConnectedComponents(Fixtures.graph(count, edges));
+        assertEquals(1, components.getComponentCount());
+        assertEquals(count, components.cycleGroups().get(0).getSize());
+    }
+}
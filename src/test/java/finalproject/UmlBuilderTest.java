@@ -0,0 +1,61 @@
+package finalproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ROLE: Test.
+ * PlantUML text from UmlBuilder: one declaration per class, one arrow per related pair, and cycles drawn in red.
+ * Files that share a qualified name, as in a repo with two source roots, must come out as a single class.
+ *
+ * @author Parker Jones
+ * @author Ashley Aring
+ * @version 1.0
+ */
+class UmlBuilderTest {
+
+    private static List<String> lines(DependencyGraph graph) {
+        UmlDiagramData uml = new UmlBuilder().build(graph, new StronglyConnectedComponents(graph));
+        return Arrays.asList(uml.getPlantUmlText().split("\n"));
+    }
+
+    @Test
+    void drawsEachRelationOnceAndColorsCycles() throws IOException {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("p/A.java", "package p;\npublic class A extends B { C c; }\n");
+        sources.put("p/B.java", "package p;\npublic abstract class B { A a; }\n");
+        sources.put("p/C.java", "package p;\npublic interface C { }\n");
+        DependencyGraph graph = Fixtures.graph(sources);
+        UmlDiagramData uml = new UmlBuilder().build(graph, new StronglyConnectedComponents(graph));
+
+        assertEquals(List.of("@startuml", "class A #FFD6D6", "abstract class B #FFD6D6", "interface C",
+                "A -[#B22222]-|> B", "A o-- C", "B o-[#B22222]- A", "@enduml"), lines(graph));
+        assertEquals(3, uml.getRelationCount());
+        // The streamed form is the same text
+        StringBuilder streamed = new StringBuilder();
+        assertEquals(3, new UmlBuilder().write(graph, new StronglyConnectedComponents(graph), streamed));
+        assertEquals(uml.getPlantUmlText(), streamed.toString());
+    }
+
+    @Test
+    void declaresASharedQualifiedNameOnce() {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("main/p/A.java", "package p;\npublic class A { B b; }\n");
+        sources.put("main/p/B.java", "package p;\npublic class B { }\n");
+        sources.put("other/p/A.java", "package p;\npublic class A { B b; C c; }\n");
+        sources.put("other/p/C.java", "package p;\npublic class C { }\n");
+        List<String> lines = lines(Fixtures.graph(sources));
+
+        assertEquals(1, lines.stream().filter(line -> line.equals("class A")).count());
+        assertEquals(1, lines.stream().filter(line -> line.startsWith("A ") && line.endsWith(" B")).count());
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("A ") && line.endsWith(" C")));
+    }
+}
@@ -0,0 +1,9 @@
+package c;
+
+import a.Foo;
+
+public class User {
+    private Foo imported;
+    private b.Foo qualified;
+    private List sibling;
+}
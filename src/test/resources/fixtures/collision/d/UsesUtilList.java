@@ -0,0 +1,11 @@
+package d;
+
+import java.util.List;
+import b.*;
+
+public class UsesUtilList {
+    private List<String> names;
+
+    public void accept(Foo foo) {
+    }
+}